@@ -0,0 +1,47 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.booking.handler.BookingStateHandler;
+import ru.practicum.booking.handler.BookingStateHandlerChain;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingStateHandlerChainBenchmark {
+    private BookingStateHandlerChain chain;
+    private String exactState;
+    private String lowerCaseState;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededShareIt shareIt) {
+        chain = shareIt.bean(BookingStateHandlerChain.class);
+        // Строки не из пула констант, как и параметры запроса
+        exactState = new String("OWNER_WAITING");
+        lowerCaseState = new String("current");
+    }
+
+    @Benchmark
+    public BookingStateHandler exactState() {
+        return chain.getHandler(exactState);
+    }
+
+    @Benchmark
+    public BookingStateHandler lowerCaseState() {
+        return chain.getHandler(lowerCaseState);
+    }
+}
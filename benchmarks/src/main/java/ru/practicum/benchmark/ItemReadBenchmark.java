@@ -0,0 +1,50 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.item.Item;
+import ru.practicum.item.ItemRepository;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemReadBenchmark {
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededShareIt shareIt) {
+        itemService = shareIt.bean(ItemService.class);
+        itemRepository = shareIt.bean(ItemRepository.class);
+        ownerId = shareIt.getHotOwnerId();
+    }
+
+    @Benchmark
+    public List<ItemDto> getAllByOwner() {
+        return itemService.getAllByOwner(ownerId);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return itemRepository.search("drill", PageRequest.of(0, 20));
+    }
+}
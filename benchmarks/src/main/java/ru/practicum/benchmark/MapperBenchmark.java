@@ -0,0 +1,76 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingMapper;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.item.Item;
+import ru.practicum.item.ItemMapper;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private Item item;
+    private Booking booking;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededShareIt shareIt) {
+        bookingMapper = shareIt.bean(BookingMapper.class);
+        itemMapper = shareIt.bean(ItemMapper.class);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("owner");
+        owner.setEmail("owner@shareit.test");
+        User booker = new User();
+        booker.setId(2L);
+        booker.setName("booker");
+        booker.setEmail("booker@shareit.test");
+
+        item = new Item();
+        item.setId(10L);
+        item.setName("Drill 0");
+        item.setDescription("cordless drill in good condition");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        booking = new Booking();
+        booking.setId(100L);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(3));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(Booking.BookingStatus.APPROVED);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingToResponseDto() {
+        return bookingMapper.toResponseDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return itemMapper.toItemDto(item);
+    }
+}
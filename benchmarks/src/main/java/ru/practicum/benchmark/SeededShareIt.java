@@ -0,0 +1,127 @@
+package ru.practicum.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ShareItApplication;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.CommentDto;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Сервер на H2 в памяти с данными, похожими на рабочие: один владелец с большим каталогом
+ * и историей бронирований, несколько владельцев поменьше.
+ */
+@State(Scope.Benchmark)
+public class SeededShareIt {
+    static final int OWNERS = 10;
+    static final int ITEMS_PER_OWNER = 100;
+    static final int HOT_OWNER_ITEMS = 500;
+    static final int BOOKINGS_PER_ITEM = 6;
+
+    private static final String[] NAMES = {
+            "Drill", "Saw", "Ladder", "Hammer", "Tent", "Bike", "Kayak", "Camera", "Projector", "Mixer"
+    };
+    private static final String[] ADJECTIVES = {
+            "cordless", "heavy", "folding", "compact", "family", "mountain", "inflatable", "digital", "portable", "stand"
+    };
+
+    private ConfigurableApplicationContext context;
+    private Long hotOwnerId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--shareit.booking-expiry.enabled=false");
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long getHotOwnerId() {
+        return hotOwnerId;
+    }
+
+    private void seed() {
+        UserService userService = bean(UserService.class);
+        ItemService itemService = bean(ItemService.class);
+        BookingService bookingService = bean(BookingService.class);
+
+        Long bookerId = userService.save(user("booker")).getId();
+        hotOwnerId = userService.save(user("owner0")).getId();
+        List<ItemDto> hotItems = itemService.createAll(items(HOT_OWNER_ITEMS), hotOwnerId).getCreated().stream()
+                .filter(ItemDto::getAvailable)
+                .collect(Collectors.toList());
+        for (int i = 1; i < OWNERS; i++) {
+            Long ownerId = userService.save(user("owner" + i)).getId();
+            itemService.createAll(items(ITEMS_PER_OWNER), ownerId);
+        }
+
+        // Половина бронирований в прошлом, половина в будущем, по неделе на каждое
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        List<Long> bookingIds = new ArrayList<>();
+        for (ItemDto item : hotItems) {
+            for (int k = 0; k < BOOKINGS_PER_ITEM; k++) {
+                LocalDateTime start = today.plusWeeks(k - BOOKINGS_PER_ITEM / 2);
+                BookingDto booking = new BookingDto(null, start, start.plusDays(2), item.getId(), null, null);
+                bookingIds.add(bookingService.createBooking(bookerId, booking).getId());
+            }
+        }
+        bookingService.approveBookings(hotOwnerId, bookingIds, true);
+
+        for (ItemDto item : hotItems) {
+            CommentDto comment = new CommentDto();
+            comment.setText("Worked fine, returned on time");
+            itemService.addComment(bookerId, item.getId(), comment);
+        }
+    }
+
+    private static UserDto user(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@shareit.test");
+        return user;
+    }
+
+    private static List<ItemDto> items(int count) {
+        List<ItemDto> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ItemDto item = new ItemDto();
+            item.setName(NAMES[i % NAMES.length] + " " + i);
+            item.setDescription(ADJECTIVES[(i / NAMES.length) % ADJECTIVES.length] + " "
+                    + NAMES[i % NAMES.length].toLowerCase() + " in good condition");
+            item.setAvailable(i % 7 != 0);
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.benchmark.load;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Набор сущностей, созданных до прогона: владелец с вещью, арендатор с завершённым
+ * подтверждённым бронированием. Заменяет pre-request скрипты коллекции: переменные {{...}}
+ * заполняются отсюда, а уникальные имена, почты и интервалы бронирований берутся из общего счётчика.
+ */
+public class Fixture {
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1);
+
+    private final long ownerId;
+    private final long bookerId;
+    private final long itemId;
+    private final long bookingId;
+    private final Queue<Long> waitingBookings = new ConcurrentLinkedQueue<>();
+
+    public Fixture(long ownerId, long bookerId, long itemId, long bookingId) {
+        this.ownerId = ownerId;
+        this.bookerId = bookerId;
+        this.itemId = itemId;
+        this.bookingId = bookingId;
+    }
+
+    public static long nextSequence() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    public Bound bind(RequestTemplate template) {
+        long sequence = nextSequence();
+        // Подтверждать лучше свежие WAITING-бронирования, иначе все PATCH упираются в "already processed"
+        Long pending = template.method().equals("PATCH") && template.path().startsWith("/bookings/")
+                ? waitingBookings.poll() : null;
+        long booking = pending != null ? pending : bookingId;
+        // Интервалы по часу подряд, чтобы создаваемые бронирования не пересекались
+        LocalDateTime start = FIRST_SLOT.plusHours(2 * sequence);
+        long userId = actsAsBooker(template) ? bookerId : ownerId;
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        template.headers().forEach((name, value) ->
+                headers.put(name, substitute(value, sequence, userId, booking, start)));
+        return new Bound(substitute(template.path(), sequence, userId, booking, start), headers,
+                template.body() == null ? null : substitute(template.body(), sequence, userId, booking, start));
+    }
+
+    public void bookingCreated(long id) {
+        waitingBookings.add(id);
+    }
+
+    public long getItemId() {
+        return itemId;
+    }
+
+    private boolean actsAsBooker(RequestTemplate template) {
+        String path = template.path();
+        return (template.method().equals("POST") && path.startsWith("/bookings"))
+                || path.contains("/comment")
+                || (template.method().equals("GET") && path.equals("/bookings"));
+    }
+
+    private String substitute(String text, long sequence, long userId, long booking, LocalDateTime start) {
+        Matcher matcher = VARIABLE.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String value = switch (matcher.group(1)) {
+                case "userId" -> String.valueOf(userId);
+                case "userName" -> "load-user-" + sequence;
+                case "userEmail" -> "load-" + sequence + "@load.test";
+                case "itemId" -> String.valueOf(itemId);
+                case "itemName" -> "Load item " + sequence;
+                case "itemDescription" -> "Item created by the load generator";
+                case "itemAvailable" -> "true";
+                case "bookingId" -> String.valueOf(booking);
+                case "start" -> DATE_TIME.format(start);
+                case "end" -> DATE_TIME.format(start.plusHours(1));
+                case "commentText" -> "Comment " + sequence;
+                default -> "";
+            };
+            matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    public record Bound(String path, Map<String, String> headers, String body) {
+    }
+}
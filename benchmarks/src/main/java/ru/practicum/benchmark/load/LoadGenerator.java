@@ -0,0 +1,246 @@
+package ru.practicum.benchmark.load;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.ShareItApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный прогон по запросам коллекции tests/postman/sprint.json.
+ * Без --base-url поднимает сервер в этом же процессе на случайном порту с H2 в памяти.
+ * Запуск: mvn -B exec:exec@load -Dload.args="--concurrency=16 --rate=500 --duration=PT60S"
+ * Параметры: --collection, --base-url, --concurrency, --rate (0 — без ограничения), --warmup, --duration,
+ * --fixtures, --exclude (регулярка по имени запроса и эндпоинту), --out.
+ */
+public final class LoadGenerator {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Options options;
+    private final String baseUrl;
+
+    private LoadGenerator(Options options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext server = null;
+        String baseUrl = options.baseUrl;
+        if (baseUrl == null) {
+            server = startServer();
+            baseUrl = "http://localhost:" + server.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadGenerator(options, baseUrl).run();
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startServer() {
+        return new SpringApplicationBuilder(ShareItApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--shareit.booking-expiry.enabled=false");
+    }
+
+    private void run() throws Exception {
+        List<RequestTemplate> templates = PostmanCollection.load(options.collection).stream()
+                .filter(template -> !options.exclude.matcher(template.name() + " " + template.endpoint()).find())
+                .toList();
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("No requests left in " + options.collection + " after --exclude");
+        }
+        List<Fixture> fixtures = new ArrayList<>();
+        for (int i = 0; i < options.fixtures; i++) {
+            fixtures.add(seedFixture());
+        }
+        System.out.printf("%s: %d requests, %d fixtures, concurrency %d, rate %s%n", baseUrl, templates.size(),
+                fixtures.size(), options.concurrency, options.rate > 0 ? options.rate + " req/s" : "unthrottled");
+
+        if (!options.warmup.isZero()) {
+            drive(templates, fixtures, options.warmup, new LoadReport());
+        }
+        LoadReport report = new LoadReport();
+        long elapsed = drive(templates, fixtures, options.duration, report);
+
+        report.print(System.out, elapsed);
+        report.writeJson(options.output, elapsed, options.describe());
+        System.out.println("result: " + options.output.toAbsolutePath());
+    }
+
+    private long drive(List<RequestTemplate> templates, List<Fixture> fixtures, Duration duration,
+                       LoadReport report) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        long interval = options.rate > 0 ? TimeUnit.SECONDS.toNanos(1) / options.rate : 0;
+        AtomicLong tickets = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        for (int w = 0; w < options.concurrency; w++) {
+            Fixture fixture = fixtures.get(w % fixtures.size());
+            int offset = w;
+            workers.execute(() -> {
+                // Каждый поток идёт по коллекции по кругу со своего места, чтобы эндпоинты перемешивались
+                for (int i = offset; ; i++) {
+                    long intended = interval > 0 ? start + tickets.getAndIncrement() * interval : System.nanoTime();
+                    if (intended >= deadline || System.nanoTime() >= deadline) {
+                        return;
+                    }
+                    long delay = intended - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    send(templates.get(i % templates.size()), fixture, intended, report);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private void send(RequestTemplate template, Fixture fixture, long intended, LoadReport report) {
+        Fixture.Bound bound = fixture.bind(template);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + bound.path()))
+                .timeout(Duration.ofSeconds(30))
+                .method(template.method(), bound.body() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(bound.body()));
+        bound.headers().forEach(request::header);
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            report.record(template.endpoint(), System.nanoTime() - intended, response.statusCode());
+            if (template.method().equals("POST") && template.path().equals("/bookings")
+                    && response.statusCode() / 100 == 2) {
+                fixture.bookingCreated(id(response.body()));
+            }
+        } catch (IOException e) {
+            report.failed(template.endpoint());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Fixture seedFixture() throws IOException, InterruptedException {
+        long sequence = Fixture.nextSequence();
+        long ownerId = create("/users", null,
+                "{\"name\":\"owner-" + sequence + "\",\"email\":\"owner-" + sequence + "@load.test\"}");
+        long bookerId = create("/users", null,
+                "{\"name\":\"booker-" + sequence + "\",\"email\":\"booker-" + sequence + "@load.test\"}");
+        long itemId = create("/items", ownerId,
+                "{\"name\":\"Drill " + sequence + "\",\"description\":\"Seeded drill\",\"available\":true}");
+
+        // Завершённое подтверждённое бронирование нужно, чтобы POST /items/{id}/comment проходил
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(3);
+        long bookingId = create("/bookings", bookerId, "{\"itemId\":" + itemId + ",\"start\":\""
+                + DATE_TIME.format(start) + "\",\"end\":\"" + DATE_TIME.format(start.plusDays(1)) + "\"}");
+        exchange(HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/" + bookingId + "?approved=true"))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .header(USER_ID_HEADER, String.valueOf(ownerId)));
+        return new Fixture(ownerId, bookerId, itemId, bookingId);
+    }
+
+    private long create(String path, Long userId, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header(USER_ID_HEADER, String.valueOf(userId));
+        }
+        return id(exchange(request));
+    }
+
+    private String exchange(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpRequest built = request.build();
+        HttpResponse<String> response = client.send(built, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed: " + built.method() + " " + built.uri() + " -> "
+                    + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private static long id(String body) {
+        Matcher matcher = ID.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No id in response: " + body);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private record Options(Path collection, String baseUrl, int concurrency, int rate, Duration warmup,
+                           Duration duration, int fixtures, Pattern exclude, Path output) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+                }
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            return new Options(
+                    Path.of(values.getOrDefault("collection", "../tests/postman/sprint.json")),
+                    values.get("base-url"),
+                    Integer.parseInt(values.getOrDefault("concurrency", "8")),
+                    Integer.parseInt(values.getOrDefault("rate", "0")),
+                    Duration.parse(values.getOrDefault("warmup", "PT10S")),
+                    Duration.parse(values.getOrDefault("duration", "PT30S")),
+                    Integer.parseInt(values.getOrDefault("fixtures", "16")),
+                    // Удаление пользователя ломает фикстуру для остальных запросов потока,
+                    // а /requests в сервере пока не реализован
+                    Pattern.compile(values.getOrDefault("exclude", "(?i)delete|/requests")),
+                    Path.of(values.getOrDefault("out", "target/load-result.json")));
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("collection", collection.toString());
+            settings.put("concurrency", concurrency);
+            settings.put("rate", rate);
+            settings.put("warmup", warmup.toString());
+            settings.put("duration", duration.toString());
+            settings.put("fixtures", fixtures);
+            settings.put("exclude", exclude.pattern());
+            return settings;
+        }
+    }
+}
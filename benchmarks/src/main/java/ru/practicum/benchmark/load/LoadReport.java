@@ -0,0 +1,107 @@
+package ru.practicum.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки в микросекундах по эндпоинтам. При заданной частоте задержка считается от запланированного
+ * момента отправки, а не от фактического, чтобы очередь на стороне клиента не скрывала замедление.
+ */
+public class LoadReport {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (status < 200 || status >= 300) {
+            stats.non2xx.increment();
+        }
+    }
+
+    public void failed(String endpoint) {
+        endpoints.computeIfAbsent(endpoint, key -> new Endpoint()).failed.increment();
+    }
+
+    public void print(PrintStream out, long elapsedNanos) {
+        out.printf("%-40s %8s %8s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "non-2xx", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        new TreeMap<>(endpoints).forEach((name, stats) -> {
+            Histogram latency = stats.latency.copy();
+            total.add(latency);
+            out.printf("%-40s %8d %8d %6d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, latency.getTotalCount(),
+                    stats.non2xx.sum(), stats.failed.sum(), millis(latency, 50), millis(latency, 90),
+                    millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1000.0);
+        });
+        out.printf("%-40s %8d %8s %6s %9.2f %9.2f %9.2f %9.2f %9.2f%n", "TOTAL", total.getTotalCount(), "", "",
+                millis(total, 50), millis(total, 90), millis(total, 99), millis(total, 99.9),
+                total.getMaxValue() / 1000.0);
+        out.printf("throughput: %.1f req/s over %.1f s%n", throughput(total, elapsedNanos), elapsedNanos / 1e9);
+    }
+
+    public void writeJson(Path file, long elapsedNanos, Map<String, Object> settings) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        new TreeMap<>(endpoints).forEach((name, stats) -> {
+            Histogram latency = stats.latency.copy();
+            total.add(latency);
+            Map<String, Object> row = summary(latency, elapsedNanos);
+            row.put("endpoint", name);
+            row.put("non2xx", stats.non2xx.sum());
+            row.put("failed", stats.failed.sum());
+            rows.add(row);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("total", summary(total, elapsedNanos));
+        result.put("endpoints", rows);
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+    }
+
+    private static Map<String, Object> summary(Histogram latency, long elapsedNanos) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("count", latency.getTotalCount());
+        row.put("throughput", throughput(latency, elapsedNanos));
+        row.put("p50Ms", millis(latency, 50));
+        row.put("p90Ms", millis(latency, 90));
+        row.put("p99Ms", millis(latency, 99));
+        row.put("p999Ms", millis(latency, 99.9));
+        row.put("maxMs", latency.getMaxValue() / 1000.0);
+        return row;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double throughput(Histogram histogram, long elapsedNanos) {
+        return histogram.getTotalCount() / (elapsedNanos / 1e9);
+    }
+
+    private static final class Endpoint {
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder non2xx = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Плоский список запросов из коллекции Postman v2.1. Pre-request и test-скрипты не исполняются:
+ * переменные подставляет {@link Fixture}.
+ */
+public final class PostmanCollection {
+    private static final Pattern HOST_PREFIX = Pattern.compile("^(\\{\\{baseUrl}}|(https?://)?[^/{]+)");
+
+    private PostmanCollection() {
+    }
+
+    public static List<RequestTemplate> load(Path file) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        List<RequestTemplate> requests = new ArrayList<>();
+        collect(root.path("item"), requests);
+        return requests;
+    }
+
+    private static void collect(JsonNode items, List<RequestTemplate> requests) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                collect(item.get("item"), requests);
+                continue;
+            }
+            JsonNode request = item.path("request");
+            JsonNode url = request.path("url");
+            String raw = url.isTextual() ? url.asText() : url.path("raw").asText();
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (JsonNode header : request.path("header")) {
+                if (!header.path("disabled").asBoolean(false)) {
+                    headers.put(header.path("key").asText(), header.path("value").asText());
+                }
+            }
+            String body = request.path("body").path("raw").asText(null);
+            requests.add(new RequestTemplate(item.path("name").asText(), request.path("method").asText(),
+                    HOST_PREFIX.matcher(raw).replaceFirst(""), headers, body == null || body.isBlank() ? null : body));
+        }
+    }
+}
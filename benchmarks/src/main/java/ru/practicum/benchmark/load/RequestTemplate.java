@@ -0,0 +1,15 @@
+package ru.practicum.benchmark.load;
+
+import java.util.Map;
+
+/**
+ * Запрос из коллекции Postman с неподставленными переменными {{...}}.
+ * path хранится без хоста, endpoint — ключ для гистограмм вида "GET /bookings/{bookingId}".
+ */
+public record RequestTemplate(String name, String method, String path, Map<String, String> headers, String body) {
+
+    public String endpoint() {
+        String withoutQuery = path.contains("?") ? path.substring(0, path.indexOf('?')) : path;
+        return method + " " + withoutQuery.replaceAll("\\{\\{(\\w+)}}", "{$1}");
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.access;
+
+public enum AccessRole {
+    OWNER, BOOKER, NONE
+}
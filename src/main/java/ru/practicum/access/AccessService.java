@@ -0,0 +1,10 @@
+package ru.practicum.access;
+
+import java.util.Optional;
+
+public interface AccessService {
+
+    Optional<AccessRole> getBookingRole(Long userId, Long bookingId);
+
+    Optional<AccessRole> getItemRole(Long userId, Long itemId);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.access;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.booking.BookingRepository;
+import ru.practicum.item.ItemRepository;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccessServiceImpl implements AccessService {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Optional<AccessRole> getBookingRole(Long userId, Long bookingId) {
+        return bookingRepository.findAccessRole(bookingId, userId)
+                .map(AccessRole::valueOf);
+    }
+
+    @Override
+    public Optional<AccessRole> getItemRole(Long userId, Long itemId) {
+        return itemRepository.findAccessRole(itemId, userId)
+                .map(AccessRole::valueOf);
+    }
+}
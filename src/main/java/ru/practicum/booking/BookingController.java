@@ -1,6 +1,8 @@
 package ru.practicum.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,56 +12,103 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.booking.dto.BookingBulkDecisionDto;
+import ru.practicum.booking.dto.BookingBulkResultDto;
 import ru.practicum.booking.dto.BookingDto;
 import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.util.ETags;
+import ru.practicum.util.HttpHeaders;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
+@Validated
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
-    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
     public BookingResponseDto createBooking(
-            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
             @Valid @RequestBody BookingDto bookingDto) {
         return bookingService.createBooking(userId, bookingDto);
     }
 
     @PatchMapping("/{bookingId}")
     public BookingResponseDto approveBooking(
-            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
             @PathVariable Long bookingId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestParam Boolean approved) {
-        return bookingService.approveBooking(userId, bookingId, approved);
+        return bookingService.approveBooking(userId, bookingId, approved, ETags.expectedVersion(ifMatch));
+    }
+
+    @PatchMapping("/bulk")
+    public List<BookingBulkResultDto> approveBookings(
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
+            @Valid @RequestBody BookingBulkDecisionDto decision) {
+        return bookingService.approveBookings(userId, decision.getBookingIds(), decision.getApproved());
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getBooking(
-            @RequestHeader(USER_ID_HEADER) Long userId,
-            @PathVariable Long bookingId) {
-        return bookingService.getBookingById(userId, bookingId);
+    public ResponseEntity<BookingResponseDto> getBooking(
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
+            @PathVariable Long bookingId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.conditional(bookingService.getETag(userId, bookingId), ifNoneMatch,
+                () -> bookingService.getBookingById(userId, bookingId));
     }
 
     @GetMapping
-    public List<BookingResponseDto> getUserBookings(
-            @RequestHeader(USER_ID_HEADER) Long userId,
+    public ResponseEntity<List<BookingResponseDto>> getUserBookings(
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
-            @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getUserBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") Boolean count) {
+        List<BookingResponseDto> bookings = cursor == null ?
+                bookingService.getUserBookings(userId, state, from, lookahead(size)) :
+                bookingService.getUserBookingsAfter(userId, state, cursor, lookahead(size));
+        Long total = count ? bookingService.countUserBookings(userId, state) : null;
+        return toResponse(bookings, size, total);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getOwnerBookings(
-            @RequestHeader(USER_ID_HEADER) Long userId,
+    public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
-            @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getOwnerBookings(userId, state, from, size);
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") Boolean count) {
+        List<BookingResponseDto> bookings = cursor == null ?
+                bookingService.getOwnerBookings(userId, state, from, lookahead(size)) :
+                bookingService.getOwnerBookingsAfter(userId, state, cursor, lookahead(size));
+        Long total = count ? bookingService.countOwnerBookings(userId, state) : null;
+        return toResponse(bookings, size, total);
+    }
+
+    // Лишняя строка показывает, есть ли следующая страница, и в ответ не попадает
+    private static int lookahead(Integer size) {
+        return size < Integer.MAX_VALUE ? size + 1 : size;
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(List<BookingResponseDto> bookings,
+                                                                Integer size, Long total) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            BookingResponseDto last = bookings.get(size - 1);
+            response.header(HttpHeaders.NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode());
+        }
+        if (total != null) {
+            response.header(HttpHeaders.TOTAL_COUNT_HEADER, String.valueOf(total));
+        }
+        return response.body(bookings);
     }
 }
@@ -28,6 +28,7 @@ public interface BookingMapper {
     @Mapping(target = "item", source = "itemId", qualifiedByName = "idToItem")
     @Mapping(target = "booker", source = "bookerId", qualifiedByName = "idToUser")
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Booking toEntity(BookingDto bookingDto);
 
     @Named("idToItem")
@@ -0,0 +1,4 @@
+package ru.practicum.booking;
+
+public record BookingOwnership(Long bookingId, Long itemId, boolean owner, Booking.BookingStatus status) {
+}
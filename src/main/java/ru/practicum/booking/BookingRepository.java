@@ -1,53 +1,40 @@
 package ru.practicum.booking;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.booking.timeline.BookingInterval;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(
-            Long bookerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(
-            Long bookerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(
-            Long bookerId, Booking.BookingStatus status, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
-            Long ownerId, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(
-            Long ownerId, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(
-            Long ownerId, Booking.BookingStatus status, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id = ?1 AND " +
-            "b.start < ?2 AND " +
-            "b.status = 'APPROVED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findLastBooking(Long itemId, LocalDateTime now);
+            "WHERE b.item.id IN ?1 AND " +
+            "b.status = 'APPROVED' AND " +
+            "b.start = (SELECT MAX(b2.start) FROM Booking b2 " +
+            "WHERE b2.item.id = b.item.id AND b2.start < ?2 AND b2.status = 'APPROVED')")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
 
     @Query("SELECT b FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND " +
+            "b.status = 'APPROVED' AND " +
+            "b.start = (SELECT MIN(b2.start) FROM Booking b2 " +
+            "WHERE b2.item.id = b.item.id AND b2.start > ?2 AND b2.status = 'APPROVED')")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
             "WHERE b.item.id = ?1 AND " +
-            "b.start > ?2 AND " +
-            "b.status = 'APPROVED' " +
-            "ORDER BY b.start ASC")
-    List<Booking> findNextBooking(Long itemId, LocalDateTime now);
+            "b.status IN ('WAITING', 'APPROVED') AND " +
+            "b.start < ?3 AND b.end > ?2")
+    boolean existsOverlapping(Long itemId, LocalDateTime start, LocalDateTime end);
 
     @Query("SELECT b FROM Booking b " +
             "WHERE b.item.id = ?1 AND " +
@@ -56,6 +43,30 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "b.status = 'APPROVED'")
     List<Booking> findCompletedBookings(Long itemId, Long bookerId, LocalDateTime now);
 
+    @Query("SELECT CASE WHEN b.item.owner.id = ?2 THEN 'OWNER' " +
+            "WHEN b.booker.id = ?2 THEN 'BOOKER' ELSE 'NONE' END " +
+            "FROM Booking b WHERE b.id = ?1")
+    Optional<String> findAccessRole(Long bookingId, Long userId);
+
+    @Query("SELECT new ru.practicum.booking.BookingOwnership(b.id, b.item.id, " +
+            "CASE WHEN b.item.owner.id = ?2 THEN true ELSE false END, b.status) " +
+            "FROM Booking b WHERE b.id IN ?1")
+    List<BookingOwnership> findOwnership(Collection<Long> bookingIds, Long userId);
+
+    @Query("SELECT new ru.practicum.booking.BookingVersion(b.version, b.item.version, b.booker.version, " +
+            "b.booker.id, b.item.owner.id) FROM Booking b WHERE b.id = ?1")
+    Optional<BookingVersion> findVersion(Long bookingId);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ?2, b.version = b.version + 1 WHERE b.id IN ?1 AND b.status = 'WAITING'")
+    int updateWaitingStatus(Collection<Long> bookingIds, Booking.BookingStatus status);
+
+    @Query("SELECT new ru.practicum.booking.timeline.BookingInterval(b.item.id, b.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.status IN ('WAITING', 'APPROVED') " +
+            "ORDER BY b.item.id, b.start, b.id")
+    Stream<BookingInterval> streamActiveIntervals();
+
     List<Booking> findByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime end);
 
     List<Booking> findByItemIdAndBookerIdAndEndBeforeAndStatus(Long itemId, Long userId, LocalDateTime now, Booking.BookingStatus bookingStatus);
@@ -1,18 +1,32 @@
 package ru.practicum.booking;
 
+import ru.practicum.booking.dto.BookingBulkResultDto;
 import ru.practicum.booking.dto.BookingDto;
 import ru.practicum.booking.dto.BookingResponseDto;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
 
     BookingResponseDto createBooking(Long userId, BookingDto bookingDto);
 
-    BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved);
+    BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved, Long expectedVersion);
+
+    List<BookingBulkResultDto> approveBookings(Long userId, List<Long> bookingIds, Boolean approved);
 
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
+    Optional<String> getETag(Long userId, Long bookingId);
+
     List<BookingResponseDto> getUserBookings(Long userId, String state, Integer from, Integer size);
 
     List<BookingResponseDto> getOwnerBookings(Long userId, String state, Integer from, Integer size);
+
+    List<BookingResponseDto> getUserBookingsAfter(Long userId, String state, String cursor, Integer size);
+
+    List<BookingResponseDto> getOwnerBookingsAfter(Long userId, String state, String cursor, Integer size);
+
+    long countUserBookings(Long userId, String state);
+
+    long countOwnerBookings(Long userId, String state);
 }
@@ -1,41 +1,76 @@
 package ru.practicum.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.access.AccessRole;
+import ru.practicum.access.AccessService;
+import ru.practicum.booking.dto.BookingBulkResultDto;
 import ru.practicum.booking.dto.BookingDto;
 import ru.practicum.booking.dto.BookingResponseDto;
 import ru.practicum.booking.handler.BookingStateHandler;
 import ru.practicum.booking.handler.BookingStateHandlerChain;
+import ru.practicum.booking.timeline.BookingInterval;
+import ru.practicum.booking.timeline.BookingTimelineIndex;
 import ru.practicum.exception.AlreadyProcessedException;
+import ru.practicum.exception.ConflictException;
 import ru.practicum.exception.ForbiddenException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.exception.UnavailableItemException;
 import ru.practicum.item.Item;
 import ru.practicum.item.ItemRepository;
+import ru.practicum.item.summary.ItemSummaryService;
 import ru.practicum.user.User;
 import ru.practicum.user.UserRepository;
+import ru.practicum.util.ETags;
+import ru.practicum.util.OffsetPageRequest;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "ex_bookings_item_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
     private final BookingMapper bookingMapper;
     private final BookingStateHandlerChain handlerChain;
+    private final BookingItemLocks itemLocks;
+    private final BookingTimelineIndex timelineIndex;
+    private final AccessService accessService;
+    private final ItemSummaryService itemSummaryService;
+    private final TransactionTemplate transactionTemplate;
 
+    // Блокировка предмета в JVM снимает очередь с базы, транзакция открывается уже под ней
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BookingResponseDto createBooking(Long userId, BookingDto bookingDto) {
+        return itemLocks.withLock(bookingDto.getItemId(),
+                () -> transactionTemplate.execute(status -> create(userId, bookingDto)));
+    }
+
+    private BookingResponseDto create(Long userId, BookingDto bookingDto) {
         User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Item not found"));
 
         if (!item.getAvailable()) {
@@ -44,25 +79,57 @@ public class BookingServiceImpl implements BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new NotFoundException("Owner cannot book own item");
         }
+        if (bookingRepository.existsOverlapping(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new ConflictException("Item is already booked for these dates");
+        }
 
         Booking booking = bookingMapper.toEntity(bookingDto);
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(Booking.BookingStatus.WAITING);
 
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ConflictException("Item is already booked for these dates");
+            }
+            throw e;
+        }
+        timelineIndex.add(new BookingInterval(item.getId(), savedBooking.getId(),
+                savedBooking.getStart(), savedBooking.getEnd()));
         return bookingMapper.toResponseDto(savedBooking);
     }
 
+    // Конфликтом считается только нарушение защиты от пересечений: exclusion constraint PostgreSQL
+    // или триггер H2 с тем же SQLSTATE; остальные нарушения целостности — ошибки сервера
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     @Transactional
-    public BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
+    public BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved, Long expectedVersion) {
+        AccessRole role = accessService.getBookingRole(userId, bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
-
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
+        if (role != AccessRole.OWNER) {
             throw new ForbiddenException("Only owner can approve booking");
         }
+
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found"));
+        ETags.checkVersion(expectedVersion, booking.getVersion());
         if (!booking.getStatus().equals(Booking.BookingStatus.WAITING)) {
             throw new AlreadyProcessedException("Booking already processed");
         }
@@ -72,34 +139,96 @@ public class BookingServiceImpl implements BookingService {
                 Booking.BookingStatus.REJECTED);
 
         Booking updatedBooking = bookingRepository.save(booking);
+        if (approved) {
+            itemSummaryService.onBookingApproved(updatedBooking);
+        } else {
+            timelineIndex.remove(booking.getItem().getId(), booking.getId());
+        }
         return bookingMapper.toResponseDto(updatedBooking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingBulkResultDto> approveBookings(Long userId, List<Long> bookingIds, Boolean approved) {
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        Map<Long, BookingOwnership> ownership = bookingRepository.findOwnership(ids, userId).stream()
+                .collect(Collectors.toMap(BookingOwnership::bookingId, Function.identity()));
+
+        List<Long> waiting = ownership.values().stream()
+                .filter(o -> o.owner() && o.status() == Booking.BookingStatus.WAITING)
+                .map(BookingOwnership::bookingId)
+                .collect(Collectors.toList());
+        Booking.BookingStatus newStatus = approved ?
+                Booking.BookingStatus.APPROVED :
+                Booking.BookingStatus.REJECTED;
+
+        Set<Long> updated = new LinkedHashSet<>(waiting);
+        if (!waiting.isEmpty()) {
+            int count = bookingRepository.updateWaitingStatus(waiting, newStatus);
+            if (count != waiting.size()) {
+                updated.clear();
+                bookingRepository.findOwnership(waiting, userId).stream()
+                        .filter(o -> o.status() == newStatus)
+                        .forEach(o -> updated.add(o.bookingId()));
+            }
+            if (approved && !updated.isEmpty()) {
+                bookingRepository.findAllById(updated).forEach(itemSummaryService::onBookingApproved);
+            }
+        }
+
+        List<BookingBulkResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BookingOwnership booking = ownership.get(id);
+            BookingBulkResultDto.Outcome outcome;
+            if (booking == null) {
+                outcome = BookingBulkResultDto.Outcome.NOT_FOUND;
+            } else if (!booking.owner()) {
+                outcome = BookingBulkResultDto.Outcome.FORBIDDEN;
+            } else if (!updated.contains(id)) {
+                outcome = BookingBulkResultDto.Outcome.ALREADY_PROCESSED;
+            } else {
+                outcome = approved ?
+                        BookingBulkResultDto.Outcome.APPROVED :
+                        BookingBulkResultDto.Outcome.REJECTED;
+                if (!approved) {
+                    timelineIndex.remove(booking.itemId(), id);
+                }
+            }
+            results.add(new BookingBulkResultDto(id, outcome));
+        }
+        return results;
+    }
+
     @Override
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        AccessRole role = accessService.getBookingRole(userId, bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
-
-        if (!booking.getBooker().getId().equals(userId) &&
-                !booking.getItem().getOwner().getId().equals(userId)) {
+        if (role == AccessRole.NONE) {
             throw new NotFoundException("Only owner or booker can view booking");
         }
 
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking not found"));
         return bookingMapper.toResponseDto(booking);
     }
 
+    @Override
+    public Optional<String> getETag(Long userId, Long bookingId) {
+        return bookingRepository.findVersion(bookingId)
+                .filter(version -> version.bookerId().equals(userId) || version.ownerId().equals(userId))
+                .map(version -> ETags.of(version.version(), version.itemVersion(), version.bookerVersion()));
+    }
+
     @Override
     public List<BookingResponseDto> getUserBookings(Long userId, String state, Integer from, Integer size) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        PageRequest page = PageRequest.of(from / size, size);
+        Pageable page = OffsetPageRequest.of(from, size);
         BookingStateHandler handler = handlerChain.getHandler(state);
         List<Booking> bookings = handler.handle(userId, page, LocalDateTime.now());
 
-        return bookings.stream()
-                .map(bookingMapper::toResponseDto)
-                .collect(Collectors.toList());
+        return toResponseDtos(bookings);
     }
 
     @Override
@@ -107,10 +236,56 @@ public class BookingServiceImpl implements BookingService {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        PageRequest page = PageRequest.of(from / size, size);
+        Pageable page = OffsetPageRequest.of(from, size);
         BookingStateHandler handler = handlerChain.getHandler("OWNER_" + state);
         List<Booking> bookings = handler.handle(userId, page, LocalDateTime.now());
 
+        return toResponseDtos(bookings);
+    }
+
+    @Override
+    public List<BookingResponseDto> getUserBookingsAfter(Long userId, String state, String cursor, Integer size) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        BookingStateHandler handler = handlerChain.getHandler(state);
+        List<Booking> bookings = handler.handleAfter(userId, bookingCursor, PageRequest.of(0, size),
+                LocalDateTime.now());
+
+        return toResponseDtos(bookings);
+    }
+
+    @Override
+    public List<BookingResponseDto> getOwnerBookingsAfter(Long userId, String state, String cursor, Integer size) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        BookingCursor bookingCursor = BookingCursor.decode(cursor);
+        BookingStateHandler handler = handlerChain.getHandler("OWNER_" + state);
+        List<Booking> bookings = handler.handleAfter(userId, bookingCursor, PageRequest.of(0, size),
+                LocalDateTime.now());
+
+        return toResponseDtos(bookings);
+    }
+
+    @Override
+    public long countUserBookings(Long userId, String state) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        return handlerChain.getHandler(state).count(userId, LocalDateTime.now());
+    }
+
+    @Override
+    public long countOwnerBookings(Long userId, String state) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        return handlerChain.getHandler("OWNER_" + state).count(userId, LocalDateTime.now());
+    }
+
+    private List<BookingResponseDto> toResponseDtos(List<Booking> bookings) {
         return bookings.stream()
                 .map(bookingMapper::toResponseDto)
                 .collect(Collectors.toList());
@@ -0,0 +1,5 @@
+package ru.practicum.booking;
+
+// Версии всего, что попадает в BookingResponseDto: само бронирование, вещь и арендатор
+public record BookingVersion(Long version, Long itemVersion, Long bookerVersion, Long bookerId, Long ownerId) {
+}
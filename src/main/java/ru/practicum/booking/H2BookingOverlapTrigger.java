@@ -0,0 +1,76 @@
+package ru.practicum.booking;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Аналог exclusion constraint из PostgreSQL для H2: пересекающиеся бронирования WAITING/APPROVED одного предмета
+ * отклоняются с SQLSTATE 23P01. Строка предмета блокируется FOR UPDATE, поэтому проверки для одного предмета
+ * выполняются по очереди и при параллельных транзакциях, в том числе в обход сервиса.
+ */
+public class H2BookingOverlapTrigger implements Trigger {
+    static final String EXCLUSION_VIOLATION = "23P01";
+    private static final Set<String> ACTIVE_STATUSES = Set.of("WAITING", "APPROVED");
+
+    private int idColumn;
+    private int itemColumn;
+    private int startColumn;
+    private int endColumn;
+    private int statusColumn;
+
+    @Override
+    public void init(Connection connection, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        Map<String, Integer> columns = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COLUMN_NAME, ORDINAL_POSITION FROM INFORMATION_SCHEMA.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?")) {
+            statement.setString(1, schemaName);
+            statement.setString(2, tableName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    columns.put(resultSet.getString(1).toUpperCase(Locale.ROOT), resultSet.getInt(2) - 1);
+                }
+            }
+        }
+        idColumn = columns.get("ID");
+        itemColumn = columns.get("ITEM_ID");
+        startColumn = columns.get("START_DATE");
+        endColumn = columns.get("END_DATE");
+        statusColumn = columns.get("STATUS");
+    }
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (newRow == null || !ACTIVE_STATUSES.contains(String.valueOf(newRow[statusColumn]))) {
+            return;
+        }
+        Object itemId = newRow[itemColumn];
+        try (PreparedStatement lock = connection.prepareStatement("SELECT id FROM items WHERE id = ? FOR UPDATE")) {
+            lock.setObject(1, itemId);
+            lock.executeQuery().close();
+        }
+        try (PreparedStatement overlap = connection.prepareStatement(
+                "SELECT id FROM bookings WHERE item_id = ? AND id <> ? AND status IN ('WAITING', 'APPROVED') " +
+                        "AND start_date < ? AND end_date > ? LIMIT 1")) {
+            overlap.setObject(1, itemId);
+            overlap.setObject(2, newRow[idColumn]);
+            overlap.setObject(3, newRow[endColumn]);
+            overlap.setObject(4, newRow[startColumn]);
+            try (ResultSet resultSet = overlap.executeQuery()) {
+                if (resultSet.next()) {
+                    throw new SQLException("Booking overlaps booking " + resultSet.getLong(1) + " of item " + itemId,
+                            EXCLUSION_VIOLATION);
+                }
+            }
+        }
+    }
+}
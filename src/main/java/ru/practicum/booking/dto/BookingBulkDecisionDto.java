@@ -0,0 +1,20 @@
+package ru.practicum.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBulkDecisionDto {
+    @NotEmpty
+    private List<@NotNull Long> bookingIds;
+
+    @NotNull
+    private Boolean approved;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBulkResultDto {
+    private Long bookingId;
+    private Outcome outcome;
+
+    public enum Outcome {
+        APPROVED, REJECTED, NOT_FOUND, FORBIDDEN, ALREADY_PROCESSED
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.booking.expiry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingRepository;
+import ru.practicum.booking.timeline.BookingTimelineIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpirySweeper implements MeterBinder {
+    // SKIP LOCKED позволяет нескольким экземплярам разбирать разные порции, а не ждать друг друга;
+    // синтаксис одинаков для PostgreSQL и H2 2.x
+    private static final String CLAIM_SQL = "SELECT id, item_id FROM bookings " +
+            "WHERE status = 'WAITING' AND start_date < ? ORDER BY start_date, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final BookingTimelineIndex timelineIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong expiredTotal = new AtomicLong();
+    private volatile long lastExpired;
+    private volatile long lastDurationMillis;
+
+    public BookingExpirySweeper(JdbcTemplate jdbcTemplate,
+                                BookingRepository bookingRepository,
+                                BookingTimelineIndex timelineIndex,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${shareit.booking-expiry.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookingRepository = bookingRepository;
+        this.timelineIndex = timelineIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.interval:PT1M}",
+            initialDelayString = "${shareit.booking-expiry.interval:PT1M}")
+    public void sweep() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        long expired = 0;
+        int claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> expireBatch(now));
+            expired += claimed;
+        } while (claimed == batchSize);
+
+        runs.incrementAndGet();
+        expiredTotal.addAndGet(expired);
+        lastExpired = expired;
+        lastDurationMillis = (System.nanoTime() - started) / 1_000_000;
+        if (expired > 0) {
+            log.info("Expired {} waiting bookings that started before {}", expired, now);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("booking.expiry.runs", runs, AtomicLong::get)
+                .description("Completed expiry sweeps")
+                .register(registry);
+        FunctionCounter.builder("booking.expiry.batches", batches, AtomicLong::get)
+                .description("Claimed batches of waiting bookings")
+                .register(registry);
+        FunctionCounter.builder("booking.expiry.expired", expiredTotal, AtomicLong::get)
+                .description("Bookings moved from WAITING to EXPIRED")
+                .register(registry);
+        Gauge.builder("booking.expiry.last.duration", this, sweeper -> sweeper.lastDurationMillis)
+                .description("Duration of the last sweep")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("booking.expiry.last.expired", this, sweeper -> sweeper.lastExpired)
+                .description("Bookings expired by the last sweep")
+                .register(registry);
+    }
+
+    // Захваченные строки заблокированы до конца транзакции, поэтому UPDATE затронет их все
+    private int expireBatch(LocalDateTime now) {
+        List<ClaimedBooking> claimed = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedBooking(rs.getLong("id"), rs.getLong("item_id")), now, batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = claimed.stream()
+                .map(ClaimedBooking::id)
+                .collect(Collectors.toList());
+        bookingRepository.updateWaitingStatus(ids, Booking.BookingStatus.EXPIRED);
+        claimed.forEach(booking -> timelineIndex.remove(booking.itemId(), booking.id()));
+        batches.incrementAndGet();
+        return claimed.size();
+    }
+
+    private record ClaimedBooking(Long id, Long itemId) {
+    }
+}
@@ -1,21 +1,44 @@
 package ru.practicum.booking.handler;
 
-import ru.practicum.booking.BookingRepository;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingCursor;
+import ru.practicum.booking.query.BookingQueryEngine;
+import ru.practicum.booking.query.BookingRole;
+import ru.practicum.booking.query.BookingState;
 import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public abstract class AbstractBookingStateHandler implements BookingStateHandler {
-    protected final BookingRepository bookingRepository;
+    protected final BookingQueryEngine queryEngine;
+    protected final BookingRole role;
+    protected final BookingState state;
     protected final String supportedState;
 
-    protected AbstractBookingStateHandler(BookingRepository bookingRepository, String supportedState) {
-        this.bookingRepository = bookingRepository;
-        this.supportedState = supportedState;
+    protected AbstractBookingStateHandler(BookingQueryEngine queryEngine, BookingRole role, BookingState state) {
+        this.queryEngine = queryEngine;
+        this.role = role;
+        this.state = state;
+        this.supportedState = role == BookingRole.OWNER ? "OWNER_" + state.name() : state.name();
     }
 
     @Override
-    public boolean canHandle(String state) {
-        return supportedState.equalsIgnoreCase(state);
+    public String getSupportedState() {
+        return supportedState;
+    }
+
+    @Override
+    public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
+        return queryEngine.find(role, state, userId, pageable, now);
+    }
+
+    @Override
+    public List<Booking> handleAfter(Long userId, BookingCursor cursor, Pageable pageable, LocalDateTime now) {
+        return queryEngine.findAfter(role, state, userId, cursor, pageable, now);
+    }
+
+    @Override
+    public long count(Long userId, LocalDateTime now) {
+        return queryEngine.count(role, state, userId, now);
     }
 }
@@ -1,13 +1,18 @@
 package ru.practicum.booking.handler;
 
 import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingCursor;
 import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingStateHandler {
 
-    boolean canHandle(String state);
+    String getSupportedState();
 
     List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now);
+
+    List<Booking> handleAfter(Long userId, BookingCursor cursor, Pageable pageable, LocalDateTime now);
+
+    long count(Long userId, LocalDateTime now);
 }
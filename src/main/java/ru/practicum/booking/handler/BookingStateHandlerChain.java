@@ -1,21 +1,32 @@
 package ru.practicum.booking.handler;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 import ru.practicum.exception.UnsupportedStatusException;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class BookingStateHandlerChain {
-    private final List<BookingStateHandler> handlers;
+    private final Map<String, BookingStateHandler> handlers;
 
-    public BookingStateHandlerChain(List<BookingStateHandler> handlers) {
-        this.handlers = handlers;
+    public BookingStateHandlerChain(List<BookingStateHandler> handlers, MeterRegistry meterRegistry) {
+        this.handlers = handlers.stream()
+                .<BookingStateHandler>map(handler -> new TimedBookingStateHandler(handler, meterRegistry))
+                .collect(Collectors.toUnmodifiableMap(BookingStateHandler::getSupportedState, Function.identity()));
     }
 
     public BookingStateHandler getHandler(String state) {
-        return handlers.stream()
-                .filter(h -> h.canHandle(state.toUpperCase()))
-                .findFirst()
-                .orElseThrow(() -> new UnsupportedStatusException("Unknown state: " + state));
+        BookingStateHandler handler = handlers.get(state);
+        if (handler == null) {
+            handler = handlers.get(state.toUpperCase(Locale.ROOT));
+        }
+        if (handler == null) {
+            throw new UnsupportedStatusException("Unknown state: " + state);
+        }
+        return handler;
     }
 }
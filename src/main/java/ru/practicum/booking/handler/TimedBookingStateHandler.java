@@ -0,0 +1,54 @@
+package ru.practicum.booking.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingCursor;
+import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Таймер booking.state.handler с тегами state и operation вокруг любого обработчика
+class TimedBookingStateHandler implements BookingStateHandler {
+    private static final String METRIC = "booking.state.handler";
+
+    private final BookingStateHandler delegate;
+    private final Timer handleTimer;
+    private final Timer handleAfterTimer;
+    private final Timer countTimer;
+
+    TimedBookingStateHandler(BookingStateHandler delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.handleTimer = timer(registry, delegate.getSupportedState(), "handle");
+        this.handleAfterTimer = timer(registry, delegate.getSupportedState(), "handleAfter");
+        this.countTimer = timer(registry, delegate.getSupportedState(), "count");
+    }
+
+    @Override
+    public String getSupportedState() {
+        return delegate.getSupportedState();
+    }
+
+    @Override
+    public List<Booking> handle(Long userId, Pageable pageable, LocalDateTime now) {
+        return handleTimer.record(() -> delegate.handle(userId, pageable, now));
+    }
+
+    @Override
+    public List<Booking> handleAfter(Long userId, BookingCursor cursor, Pageable pageable, LocalDateTime now) {
+        return handleAfterTimer.record(() -> delegate.handleAfter(userId, cursor, pageable, now));
+    }
+
+    @Override
+    public long count(Long userId, LocalDateTime now) {
+        return countTimer.record(() -> delegate.count(userId, now));
+    }
+
+    private static Timer timer(MeterRegistry registry, String state, String operation) {
+        return Timer.builder(METRIC)
+                .description("Booking list queries by state")
+                .tag("state", state)
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
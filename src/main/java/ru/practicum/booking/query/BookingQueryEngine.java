@@ -0,0 +1,109 @@
+package ru.practicum.booking.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class BookingQueryEngine {
+    private static final String ORDER = " ORDER BY b.start DESC, b.id DESC";
+    private static final String SEEK = " AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))";
+
+    private final EntityManager entityManager;
+    private final Map<QueryKey, CompiledQuery> queries = new ConcurrentHashMap<>();
+
+    public List<Booking> find(BookingRole role, BookingState state, Long userId,
+                              Pageable pageable, LocalDateTime now) {
+        CompiledQuery compiled = compile(new QueryKey(role, state, QueryShape.PAGE));
+        return compiled.bind(entityManager.createQuery(compiled.jpql(), Booking.class), userId, now)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    public List<Booking> findAfter(BookingRole role, BookingState state, Long userId, BookingCursor cursor,
+                                   Pageable pageable, LocalDateTime now) {
+        CompiledQuery compiled = compile(new QueryKey(role, state, QueryShape.SEEK));
+        return compiled.bind(entityManager.createQuery(compiled.jpql(), Booking.class), userId, now)
+                .setParameter("cursorStart", cursor.start())
+                .setParameter("cursorId", cursor.id())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    public long count(BookingRole role, BookingState state, Long userId, LocalDateTime now) {
+        CompiledQuery compiled = compile(new QueryKey(role, state, QueryShape.COUNT));
+        return compiled.bind(entityManager.createQuery(compiled.jpql(), Long.class), userId, now)
+                .getSingleResult();
+    }
+
+    private CompiledQuery compile(QueryKey key) {
+        return queries.computeIfAbsent(key, BookingQueryEngine::build);
+    }
+
+    private static CompiledQuery build(QueryKey key) {
+        StringBuilder jpql = new StringBuilder(key.shape() == QueryShape.COUNT ?
+                "SELECT COUNT(b) FROM Booking b JOIN b.item i" :
+                "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker");
+        jpql.append(key.role() == BookingRole.OWNER ?
+                " WHERE i.owner.id = :userId" :
+                " WHERE b.booker.id = :userId");
+
+        String timeWindow = switch (key.state()) {
+            case CURRENT -> " AND b.start < :now AND b.end > :now";
+            case PAST -> " AND b.end < :now";
+            case FUTURE -> " AND b.start > :now";
+            default -> null;
+        };
+        Booking.BookingStatus status = switch (key.state()) {
+            case WAITING -> Booking.BookingStatus.WAITING;
+            case REJECTED -> Booking.BookingStatus.REJECTED;
+            default -> null;
+        };
+        if (timeWindow != null) {
+            jpql.append(timeWindow);
+        }
+        if (status != null) {
+            jpql.append(" AND b.status = :status");
+        }
+
+        if (key.shape() == QueryShape.SEEK) {
+            jpql.append(SEEK);
+        }
+        if (key.shape() != QueryShape.COUNT) {
+            jpql.append(ORDER);
+        }
+        return new CompiledQuery(jpql.toString(), timeWindow != null, status);
+    }
+
+    private enum QueryShape {
+        PAGE, SEEK, COUNT
+    }
+
+    private record QueryKey(BookingRole role, BookingState state, QueryShape shape) {
+    }
+
+    private record CompiledQuery(String jpql, boolean usesNow, Booking.BookingStatus status) {
+
+        <T> TypedQuery<T> bind(TypedQuery<T> query, Long userId, LocalDateTime now) {
+            query.setParameter("userId", userId);
+            if (usesNow) {
+                query.setParameter("now", now);
+            }
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            return query;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.booking.query;
+
+public enum BookingRole {
+    BOOKER, OWNER
+}
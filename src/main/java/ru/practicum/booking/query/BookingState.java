@@ -0,0 +1,5 @@
+package ru.practicum.booking.query;
+
+public enum BookingState {
+    ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED
+}
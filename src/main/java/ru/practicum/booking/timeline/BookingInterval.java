@@ -0,0 +1,6 @@
+package ru.practicum.booking.timeline;
+
+import java.time.LocalDateTime;
+
+public record BookingInterval(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+}
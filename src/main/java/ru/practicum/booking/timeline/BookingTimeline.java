@@ -0,0 +1,137 @@
+package ru.practicum.booking.timeline;
+
+import java.util.Arrays;
+
+/**
+ * Occupied intervals of one item as parallel primitive arrays sorted by start.
+ * Writers replace the snapshot under the monitor, readers use it without locking.
+ * Intervals may nest or overlap (bookings that overlapped before the guard existed),
+ * so the snapshot also keeps the running maximum of ends for the query start lookup.
+ */
+public class BookingTimeline {
+    private volatile Snapshot snapshot;
+
+    public BookingTimeline() {
+        this.snapshot = Snapshot.of(new long[0], new long[0], new long[0]);
+    }
+
+    BookingTimeline(long[] starts, long[] ends, long[] ids) {
+        this.snapshot = Snapshot.of(starts, ends, ids);
+    }
+
+    public synchronized void add(long bookingId, long start, long end) {
+        Snapshot current = snapshot;
+        int size = current.starts.length;
+        int position = lowerBound(current.starts, start);
+        while (position < size && current.starts[position] == start && current.ids[position] < bookingId) {
+            position++;
+        }
+        snapshot = Snapshot.of(insert(current.starts, position, start),
+                insert(current.ends, position, end),
+                insert(current.ids, position, bookingId));
+    }
+
+    public synchronized boolean remove(long bookingId) {
+        Snapshot current = snapshot;
+        for (int i = 0; i < current.ids.length; i++) {
+            if (current.ids[i] == bookingId) {
+                snapshot = Snapshot.of(delete(current.starts, i), delete(current.ends, i), delete(current.ids, i));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return snapshot.starts.length;
+    }
+
+    /**
+     * Returns free slots within [from, to) flattened as start/end pairs.
+     */
+    public long[] freeSlots(long from, long to) {
+        Snapshot current = snapshot;
+        long[] starts = current.starts;
+        long[] ends = current.ends;
+
+        // First interval that can reach past from; every earlier one ends at or before it
+        int i = upperBound(current.maxEnds, from);
+
+        long[] slots = new long[8];
+        int count = 0;
+        long cursor = from;
+        for (; i < starts.length && starts[i] < to; i++) {
+            if (starts[i] > cursor) {
+                if (count + 2 > slots.length) {
+                    slots = Arrays.copyOf(slots, slots.length * 2);
+                }
+                slots[count++] = cursor;
+                slots[count++] = starts[i];
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < to) {
+            if (count + 2 > slots.length) {
+                slots = Arrays.copyOf(slots, slots.length + 2);
+            }
+            slots[count++] = cursor;
+            slots[count++] = to;
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long[] insert(long[] values, int position, long value) {
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(values, position, result, position + 1, values.length - position);
+        return result;
+    }
+
+    private static long[] delete(long[] values, int position) {
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, position);
+        System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+        return result;
+    }
+
+    private record Snapshot(long[] starts, long[] ends, long[] ids, long[] maxEnds) {
+        private static Snapshot of(long[] starts, long[] ends, long[] ids) {
+            long[] maxEnds = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+            return new Snapshot(starts, ends, ids, maxEnds);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.booking.timeline;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.booking.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingTimelineIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingTimeline> timelines = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        timelines.clear();
+        TimelineBuilder builder = null;
+        long intervals = 0;
+        try (Stream<BookingInterval> stream = bookingRepository.streamActiveIntervals()) {
+            for (BookingInterval interval : (Iterable<BookingInterval>) stream::iterator) {
+                if (builder == null || !builder.itemId.equals(interval.itemId())) {
+                    if (builder != null) {
+                        timelines.put(builder.itemId, builder.build());
+                    }
+                    builder = new TimelineBuilder(interval.itemId());
+                }
+                builder.add(interval.bookingId(), toEpoch(interval.start()), toEpoch(interval.end()));
+                intervals++;
+            }
+        }
+        if (builder != null) {
+            timelines.put(builder.itemId, builder.build());
+        }
+        log.info("Rebuilt booking timelines: {} intervals over {} items", intervals, timelines.size());
+    }
+
+    public void add(BookingInterval interval) {
+        afterCommit(() -> timelines.computeIfAbsent(interval.itemId(), id -> new BookingTimeline())
+                .add(interval.bookingId(), toEpoch(interval.start()), toEpoch(interval.end())));
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        afterCommit(() -> {
+            BookingTimeline timeline = timelines.get(itemId);
+            if (timeline != null) {
+                timeline.remove(bookingId);
+            }
+        });
+    }
+
+    public long[] freeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        long start = toEpoch(from);
+        long end = toEpoch(to);
+        BookingTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return new long[]{start, end};
+        }
+        return timeline.freeSlots(start, end);
+    }
+
+    public static long toEpoch(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime fromEpoch(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static final class TimelineBuilder {
+        private final Long itemId;
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private long[] ids = new long[4];
+        private int size;
+
+        private TimelineBuilder(Long itemId) {
+            this.itemId = itemId;
+        }
+
+        private void add(long bookingId, long start, long end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            ids[size] = bookingId;
+            size++;
+        }
+
+        private BookingTimeline build() {
+            return new BookingTimeline(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size),
+                    Arrays.copyOf(ids, size));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/caches")
+@RequiredArgsConstructor
+public class CacheStatsController {
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<JsonResponseCache> responseCaches;
+
+    @GetMapping
+    public List<CacheStatsDto> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Stream.concat(
+                        Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                                .sorted()
+                                .map(region -> toDto(region, statistics.getCacheRegionStatistics(region)))
+                                .filter(Objects::nonNull),
+                        responseCaches.stream().map(JsonResponseCache::stats))
+                .collect(Collectors.toList());
+    }
+
+    // Регионы кэша второго уровня Hibernate; размер JCache не сообщает, вытеснения не считаются
+    private static CacheStatsDto toDto(String region, CacheRegionStatistics stats) {
+        if (stats == null) {
+            return null;
+        }
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        long requests = hits + misses;
+        long size = stats.getElementCountInMemory();
+        return new CacheStatsDto(region, size < 0 ? null : size, hits, misses,
+                requests == 0 ? 0.0 : (double) hits / requests, null);
+    }
+}
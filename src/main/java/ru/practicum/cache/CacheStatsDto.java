@@ -0,0 +1,17 @@
+package ru.practicum.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    private String name;
+    private Long size;
+    private Long hits;
+    private Long misses;
+    private Double hitRate;
+    private Long evictions;
+}
@@ -0,0 +1,100 @@
+package ru.practicum.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Тело ответа из {@link JsonResponseCache}: либо закреплённая запись вне кучи, которая копируется прямо в поток
+ * ответа через {@link CachedJsonHttpMessageConverter}, либо только что собранные байты. Всё решается в контроллере,
+ * до заголовков; конвертер только пишет и к базе не обращается.
+ */
+public class CachedJson implements AutoCloseable {
+    private final OffHeapSlabCache.Pin pin;
+    private final byte[] value;
+    private final boolean storedGzip;
+    private final boolean sendGzip;
+
+    CachedJson(OffHeapSlabCache.Pin pin, boolean storedGzip, boolean sendGzip) {
+        this.pin = pin;
+        this.value = null;
+        this.storedGzip = storedGzip;
+        this.sendGzip = sendGzip;
+    }
+
+    CachedJson(byte[] value, boolean storedGzip, boolean sendGzip) {
+        this.pin = null;
+        this.value = value;
+        this.storedGzip = storedGzip;
+        this.sendGzip = sendGzip;
+    }
+
+    public ResponseEntity<CachedJson> toResponse(ResponseEntity.BodyBuilder response) {
+        response.contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (sendGzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(this);
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        if (value != null) {
+            write(ByteBuffer.wrap(value), out);
+            return;
+        }
+        try {
+            write(pin.buffer(), out);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pin != null) {
+            pin.close();
+        }
+    }
+
+    private void write(ByteBuffer buffer, OutputStream out) throws IOException {
+        if (storedGzip && !sendGzip) {
+            // Клиент без gzip: распаковываем на лету
+            try (InputStream in = new GZIPInputStream(new ByteBufferInputStream(buffer))) {
+                in.transferTo(out);
+            }
+            return;
+        }
+        Channels.newChannel(out).write(buffer);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
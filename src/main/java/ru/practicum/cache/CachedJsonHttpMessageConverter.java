@@ -0,0 +1,38 @@
+package ru.practicum.cache;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class CachedJsonHttpMessageConverter extends AbstractHttpMessageConverter<CachedJson> {
+
+    public CachedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedJson.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CachedJson readInternal(Class<? extends CachedJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("CachedJson is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(CachedJson body, HttpOutputMessage outputMessage) throws IOException {
+        body.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+public class ItemJsonCacheConfig {
+
+    @Bean
+    public OffHeapSlabCache itemJsonStore(
+            @Value("${shareit.item-json-cache.memory-budget:64MB}") DataSize memoryBudget,
+            @Value("${shareit.item-json-cache.page-size:1MB}") DataSize pageSize,
+            @Value("${shareit.item-json-cache.ttl:10m}") Duration ttl) {
+        return new OffHeapSlabCache("item-json", memoryBudget.toBytes(), (int) pageSize.toBytes(), ttl);
+    }
+
+    @Bean
+    public JsonResponseCache itemJsonCache(OffHeapSlabCache itemJsonStore, ObjectMapper objectMapper,
+                                           @Value("${shareit.item-json-cache.compress:false}") boolean compress) {
+        return new JsonResponseCache(itemJsonStore, objectMapper, compress);
+    }
+}
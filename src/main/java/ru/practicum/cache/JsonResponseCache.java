@@ -0,0 +1,112 @@
+package ru.practicum.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Готовый JSON ответа по ключу и ETag в {@link OffHeapSlabCache}; при compressed хранится в gzip.
+ * Запись верна, пока ETag покрывает всё, из чего собран ответ: при смене ETag старая запись не отдаётся
+ * и без evict, evict лишь освобождает память раньше. Изменения мимо ETag ограничены ttl хранилища.
+ */
+public class JsonResponseCache {
+    private final OffHeapSlabCache store;
+    private final ObjectMapper objectMapper;
+    private final boolean compressed;
+
+    public JsonResponseCache(OffHeapSlabCache store, ObjectMapper objectMapper, boolean compressed) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.compressed = compressed;
+    }
+
+    // gzip принимается при q > 0 (RFC 9110, 12.5.3); неразборчивый q считается отказом
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            return quality > 0;
+        }
+        return false;
+    }
+
+    // Запись закрепляется или тело собирается сразу, до записи заголовков ответа: ошибка загрузки доходит
+    // до ErrorHandler, а конвертер только копирует байты. Закрепление снимается после записи тела,
+    // а если до записи не дошло — по завершении запроса
+    public CachedJson get(long key, String tag, boolean acceptsGzip, Supplier<?> loader) {
+        boolean gzip = compressed && acceptsGzip;
+        Optional<OffHeapSlabCache.Pin> pin = store.pin(key, tag);
+        if (pin.isPresent()) {
+            CachedJson cached = new CachedJson(pin.get(), compressed, gzip);
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            if (request != null) {
+                request.registerDestructionCallback(CachedJson.class.getName() + "@" + System.identityHashCode(cached),
+                        cached::close, RequestAttributes.SCOPE_REQUEST);
+            }
+            return cached;
+        }
+        byte[] value = encode(loader.get());
+        store.put(key, tag, value);
+        return new CachedJson(value, compressed, gzip);
+    }
+
+    public void evict(long key) {
+        store.remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    store.remove(key);
+                }
+            });
+        }
+    }
+
+    public CacheStatsDto stats() {
+        return store.stats();
+    }
+
+    private byte[] encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            if (!compressed) {
+                return json;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            }
+            return out.toByteArray();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cached response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
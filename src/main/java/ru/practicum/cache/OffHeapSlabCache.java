@@ -0,0 +1,380 @@
+package ru.practicum.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Байтовые значения вне кучи: память выделяется страницами (direct ByteBuffer) в пределах бюджета,
+ * страница режется на ячейки одного класса размера (степени двойки), как в memcached.
+ * Когда свободных ячеек класса нет и бюджет исчерпан, берётся давно не используемая страница: своя —
+ * вытесняется запись класса по алгоритму «второго шанса», чужая — страница освобождается целиком и нарезается
+ * заново под нужный класс, поэтому распределение страниц следует за размерами текущих записей.
+ * Каждая запись помечена тегом (ETag): pin с другим тегом — промах. Запись старше ttl тоже промах:
+ * тег отражает не всё, от чего зависит значение.
+ * Чтение (pin) идёт под общей блокировкой чтения и меняет только атомарные поля; размещение, удаление
+ * и вытеснение — под блокировкой записи.
+ */
+public class OffHeapSlabCache implements MeterBinder {
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private final String name;
+    private final int pageSize;
+    private final int maxPages;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final List<SizeClass> classes = new ArrayList<>();
+    private final List<Page> pages = new ArrayList<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long usedBytes;
+    private long evictions;
+    private long expirations;
+    private long reassignments;
+    private long rejections;
+
+    public OffHeapSlabCache(String name, long memoryBudget, int pageSize, Duration ttl) {
+        this(name, memoryBudget, pageSize, ttl, System::nanoTime);
+    }
+
+    OffHeapSlabCache(String name, long memoryBudget, int pageSize, Duration ttl, LongSupplier nanoTime) {
+        this.name = name;
+        this.pageSize = pageSize;
+        this.maxPages = (int) (memoryBudget / pageSize);
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+        // Самая крупная ячейка — восьмая часть страницы, чтобы на странице помещалось хотя бы несколько записей
+        for (int size = MIN_CHUNK_SIZE; size <= pageSize / 8; size *= 2) {
+            classes.add(new SizeClass(size));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxValueSize() {
+        return classes.isEmpty() ? 0 : classes.get(classes.size() - 1).chunkSize;
+    }
+
+    // Запись закреплена, пока Pin не закрыт: вытеснение освободит ячейку только после чтения
+    public Optional<Pin> pin(long key, String tag) {
+        boolean expired;
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null || !entry.tag.equals(tag)) {
+                misses.increment();
+                return Optional.empty();
+            }
+            long now = nanoTime.getAsLong();
+            expired = now - entry.expiresAt >= 0;
+            if (!expired) {
+                entry.readers.incrementAndGet();
+                entry.chunk.page.pinned.incrementAndGet();
+                entry.referenced = true;
+                entry.chunk.page.lastUsed = now;
+                hits.increment();
+                return Optional.of(new Pin(entry));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        misses.increment();
+        expire(key);
+        return Optional.empty();
+    }
+
+    public boolean put(long key, String tag, byte[] value) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(entries.get(key));
+            SizeClass sizeClass = classFor(value.length);
+            Chunk chunk = sizeClass == null ? null : allocate(sizeClass);
+            if (chunk == null) {
+                rejections++;
+                return false;
+            }
+            chunk.page.buffer.put(chunk.offset, value);
+            long now = nanoTime.getAsLong();
+            Entry entry = new Entry(key, tag, sizeClass, chunk, value.length, now + ttlNanos);
+            entries.put(key, entry);
+            sizeClass.queue.put(key, entry);
+            chunk.page.entries.add(entry);
+            chunk.page.lastUsed = now;
+            usedBytes += value.length;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(entries.get(key));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public CacheStatsDto stats() {
+        lock.readLock().lock();
+        try {
+            long hitCount = hits.sum();
+            long requests = hitCount + misses.sum();
+            return new CacheStatsDto(name, (long) entries.size(), hitCount, misses.sum(),
+                    requests == 0 ? 0.0 : (double) hitCount / requests, evictions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Счётчики читаются без блокировки: для метрик достаточно приблизительного значения
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("offheap.cache.gets", this, cache -> cache.hits.sum())
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("offheap.cache.gets", this, cache -> cache.misses.sum())
+                .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("offheap.cache.evictions", this, cache -> cache.evictions)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("offheap.cache.expirations", this, cache -> cache.expirations)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("offheap.cache.reassignments", this, cache -> cache.reassignments)
+                .description("Pages moved to another size class")
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("offheap.cache.rejections", this, cache -> cache.rejections)
+                .description("Values that did not fit into the memory budget or the largest chunk")
+                .tag("cache", name).register(registry);
+        Gauge.builder("offheap.cache.used", this, cache -> cache.usedBytes)
+                .tag("cache", name).baseUnit("bytes").register(registry);
+        Gauge.builder("offheap.cache.reserved", this, cache -> (long) cache.pages.size() * pageSize)
+                .tag("cache", name).baseUnit("bytes").register(registry);
+    }
+
+    // Между снятием блокировки чтения и взятием блокировки записи запись могли заменить свежей
+    private void expire(long key) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && nanoTime.getAsLong() - entry.expiresAt >= 0) {
+                removeEntry(entry);
+                expirations++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private SizeClass classFor(int length) {
+        for (SizeClass sizeClass : classes) {
+            if (length <= sizeClass.chunkSize) {
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private Chunk allocate(SizeClass sizeClass) {
+        if (sizeClass.free.isEmpty() && pages.size() < maxPages) {
+            Page page = new Page(ByteBuffer.allocateDirect(pageSize));
+            pages.add(page);
+            slice(page, sizeClass);
+        }
+        while (sizeClass.free.isEmpty()) {
+            Page victim = coldestPage();
+            if (victim == null) {
+                return null;
+            }
+            if (victim.sizeClass != sizeClass) {
+                reassign(victim, sizeClass);
+            } else if (!evictOne(sizeClass)) {
+                return null;
+            }
+        }
+        return sizeClass.free.poll();
+    }
+
+    // Закреплённые страницы не трогаем: их ячейки ещё читаются
+    private Page coldestPage() {
+        Page coldest = null;
+        for (Page page : pages) {
+            if (page.pinned.get() == 0 && (coldest == null || page.lastUsed < coldest.lastUsed)) {
+                coldest = page;
+            }
+        }
+        return coldest;
+    }
+
+    // Второй шанс: прочитанная с прошлого обхода запись уходит в конец очереди со снятой отметкой
+    private boolean evictOne(SizeClass sizeClass) {
+        for (int attempts = 2 * sizeClass.queue.size(); attempts > 0; attempts--) {
+            Iterator<Entry> eldest = sizeClass.queue.values().iterator();
+            if (!eldest.hasNext()) {
+                return false;
+            }
+            Entry entry = eldest.next();
+            if (entry.referenced) {
+                entry.referenced = false;
+                eldest.remove();
+                sizeClass.queue.put(entry.key, entry);
+                continue;
+            }
+            removeEntry(entry);
+            evictions++;
+            return true;
+        }
+        return false;
+    }
+
+    private void reassign(Page page, SizeClass target) {
+        for (Entry entry : List.copyOf(page.entries)) {
+            if (entry.removed) {
+                // Читатель уже отпустил запись, но ещё не вернул ячейку
+                free(entry);
+            } else {
+                removeEntry(entry);
+                evictions++;
+            }
+        }
+        page.sizeClass.free.removeIf(chunk -> chunk.page == page);
+        slice(page, target);
+        reassignments++;
+    }
+
+    private void slice(Page page, SizeClass sizeClass) {
+        page.sizeClass = sizeClass;
+        for (int offset = 0; offset + sizeClass.chunkSize <= pageSize; offset += sizeClass.chunkSize) {
+            sizeClass.free.add(new Chunk(page, offset));
+        }
+    }
+
+    private void removeEntry(Entry entry) {
+        if (entry == null || entry.removed) {
+            return;
+        }
+        entries.remove(entry.key, entry);
+        entry.sizeClass.queue.remove(entry.key, entry);
+        entry.removed = true;
+        usedBytes -= entry.length;
+        if (entry.readers.get() == 0) {
+            free(entry);
+        }
+    }
+
+    // Сначала readers, потом pinned: страница без закреплений не держит и незакрытых читателей
+    private void unpin(Entry entry) {
+        int readers = entry.readers.decrementAndGet();
+        entry.chunk.page.pinned.decrementAndGet();
+        if (readers == 0 && entry.removed) {
+            lock.writeLock().lock();
+            try {
+                if (entry.readers.get() == 0) {
+                    free(entry);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void free(Entry entry) {
+        if (!entry.freed) {
+            entry.freed = true;
+            entry.chunk.page.entries.remove(entry);
+            entry.sizeClass.free.add(entry.chunk);
+        }
+    }
+
+    public final class Pin implements AutoCloseable {
+        private final Entry entry;
+        private final AtomicInteger closed = new AtomicInteger();
+
+        private Pin(Entry entry) {
+            this.entry = entry;
+        }
+
+        public ByteBuffer buffer() {
+            return entry.chunk.page.buffer.asReadOnlyBuffer().slice(entry.chunk.offset, entry.length);
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(0, 1)) {
+                unpin(entry);
+            }
+        }
+    }
+
+    private static final class SizeClass {
+        private final int chunkSize;
+        private final Deque<Chunk> free = new ArrayDeque<>();
+        private final LinkedHashMap<Long, Entry> queue = new LinkedHashMap<>();
+
+        private SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    // Страница принадлежит одному классу; entries — записи в её ячейках, включая удалённые, но ещё закреплённые
+    private static final class Page {
+        private final ByteBuffer buffer;
+        private final Set<Entry> entries = new HashSet<>();
+        private final AtomicInteger pinned = new AtomicInteger();
+        private SizeClass sizeClass;
+        private volatile long lastUsed;
+
+        private Page(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private record Chunk(Page page, int offset) {
+    }
+
+    private static final class Entry {
+        private final long key;
+        private final String tag;
+        private final SizeClass sizeClass;
+        private final Chunk chunk;
+        private final int length;
+        private final long expiresAt;
+        private final AtomicInteger readers = new AtomicInteger();
+        private volatile boolean referenced;
+        private volatile boolean removed;
+        private boolean freed;
+
+        private Entry(long key, String tag, SizeClass sizeClass, Chunk chunk, int length, long expiresAt) {
+            this.key = key;
+            this.tag = tag;
+            this.sizeClass = sizeClass;
+            this.chunk = chunk;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Пользователь, открывший пишущую транзакцию, в течение окна читает с первичной базы,
+ * чтобы увидеть свои изменения до того, как они доедут до реплик.
+ * Пользователь запроса берётся из X-Sharer-User-Id (см. {@link ReplicaRoutingFilter}); состояние локально для экземпляра.
+ */
+public class ReadYourWritesTracker {
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(boolean enabled, Duration window) {
+        this.enabled = enabled;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    void setCurrentUser(Long userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    void clearCurrentUser() {
+        CURRENT_USER.remove();
+    }
+
+    void recordWrite() {
+        Long userId = CURRENT_USER.get();
+        if (enabled && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    boolean mustReadPrimary() {
+        Long userId = CURRENT_USER.get();
+        return enabled && userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource")
+public class ReplicaProperties {
+    private List<Replica> replicas = new ArrayList<>();
+    private ReadYourWrites readYourWrites = new ReadYourWrites();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        // Пустые значения берутся из spring.datasource.*
+        private String username;
+        private String password;
+        private int weight = 1;
+        private int maximumPoolSize = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class ReadYourWrites {
+        private boolean enabled = true;
+        // Должно покрывать отставание реплик
+        private Duration window = Duration.ofSeconds(5);
+    }
+}
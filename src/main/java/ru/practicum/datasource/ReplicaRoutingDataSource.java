@@ -0,0 +1,115 @@
+package ru.practicum.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Транзакции readOnly уходят на реплику, выбранную случайно пропорционально весу, остальное — на первичную базу.
+ * Решение принимается при получении физического соединения, поэтому источник нужно оборачивать
+ * в LazyConnectionDataSourceProxy: к первому запросу флаг readOnly транзакции уже выставлен.
+ * Внутри HTTP-запроса ({@link ReplicaRoutingFilter}) реплика выбирается один раз: ETag и тело условного GET
+ * читаются в разных транзакциях и не должны видеть реплики с разным отставанием.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<RequestReplica> REQUEST_REPLICA = new ThreadLocal<>();
+
+    private final List<String> replicaKeys;
+    private final int[] cumulativeWeights;
+    private final ReadYourWritesTracker tracker;
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<WeightedDataSource> replicas,
+                                    ReadYourWritesTracker tracker, MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        this.replicaKeys = replicas.stream().map(WeightedDataSource::name).toList();
+        this.cumulativeWeights = new int[replicas.size()];
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        int total = 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            WeightedDataSource replica = replicas.get(i);
+            if (replica.weight() < 0) {
+                throw new IllegalArgumentException("Replica " + replica.name() + " has negative weight "
+                        + replica.weight());
+            }
+            targets.put(replica.name(), replica.dataSource());
+            total += replica.weight();
+            cumulativeWeights[i] = total;
+        }
+        // Вес 0 выводит реплику из ротации, но хотя бы одна должна остаться
+        if (!replicas.isEmpty() && total == 0) {
+            throw new IllegalArgumentException("At least one replica must have a positive weight");
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        for (Object key : targets.keySet()) {
+            routed.put((String) key, Counter.builder("datasource.routing.connections")
+                    .description("Physical connections handed out by target")
+                    .tag("target", (String) key)
+                    .register(meterRegistry));
+        }
+    }
+
+    static void beginRequest() {
+        REQUEST_REPLICA.set(new RequestReplica());
+    }
+
+    static void endRequest() {
+        REQUEST_REPLICA.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = lookupKey();
+        routed.get(key).increment();
+        return key;
+    }
+
+    private String lookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || tracker.mustReadPrimary()) {
+            return PRIMARY;
+        }
+        RequestReplica request = REQUEST_REPLICA.get();
+        if (request == null) {
+            return pickReplica();
+        }
+        if (request.key == null) {
+            request.key = pickReplica();
+        }
+        return request.key;
+    }
+
+    private String pickReplica() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return replicaKeys.get(i);
+            }
+        }
+        return replicaKeys.get(replicaKeys.size() - 1);
+    }
+
+    public record WeightedDataSource(String name, DataSource dataSource, int weight) {
+    }
+
+    private static final class RequestReplica {
+        private String key;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.util.HttpHeaders;
+
+import java.io.IOException;
+
+// Границы HTTP-запроса для маршрутизации: пользователь для read-your-writes и одна реплика на весь запрос.
+// Тело NDJSON пишется в потоке MVC уже после выхода из фильтра: там нет ни закреплённой реплики, ни пользователя,
+// поэтому транзакция потока выбирает реплику заново и может не увидеть только что сделанную пользователем запись
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+    // Раньше SqlStatementFilter и прочих фильтров, которые могут обращаться к базе
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReplicaRoutingFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        tracker.setCurrentUser(parseUserId(request.getHeader(HttpHeaders.USER_ID_HEADER)));
+        ReplicaRoutingDataSource.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.endRequest();
+            tracker.clearCurrentUser();
+        }
+    }
+
+    private static Long parseUserId(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Первичная база из spring.datasource.*, реплики из shareit.datasource.replicas[*].
+ * Локально: профиль replicas, где реплики — две базы H2 со связанными таблицами первичной.
+ * Связанная таблица читает первичную базу напрямую, поэтому локальные реплики не отстают: окно read-your-writes
+ * здесь не наблюдается, проверить его можно только на настоящей асинхронной реплике PostgreSQL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaPools replicaPools(ReplicaProperties replicaProperties, DataSourceProperties primaryProperties,
+                                     MeterRegistry meterRegistry) {
+        List<ReplicaRoutingDataSource.WeightedDataSource> replicas = new ArrayList<>();
+        List<ReplicaProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties.Replica replica = configured.get(i);
+            // Без параметров в конструкторе пул стартует при первом соединении, уже после инициализации схемы
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setDriverClassName(primaryProperties.determineDriverClassName());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : primaryProperties.getUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : primaryProperties.getPassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaRoutingDataSource.WeightedDataSource(pool.getPoolName(), pool, replica.getWeight()));
+        }
+        return new ReplicaPools(replicas);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaProperties replicaProperties) {
+        ReplicaProperties.ReadYourWrites readYourWrites = replicaProperties.getReadYourWrites();
+        return new ReadYourWritesTracker(readYourWrites.isEnabled(), readYourWrites.getWindow());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaRoutingFilter> replicaRoutingFilter(ReadYourWritesTracker tracker) {
+        FilterRegistrationBean<ReplicaRoutingFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaRoutingFilter(tracker));
+        registration.setOrder(ReplicaRoutingFilter.ORDER);
+        return registration;
+    }
+
+    // Индекс H2 FullText и функции FT_* есть только в первичной базе, на реплике поиск падал бы с ошибкой
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPools replicaPools,
+                                 ReadYourWritesTracker tracker, MeterRegistry meterRegistry,
+                                 @Value("${shareit.search.backend:jpql}") String searchBackend) {
+        if ("h2".equals(searchBackend)) {
+            throw new IllegalStateException("shareit.search.backend=h2 reads the FullText index of the primary "
+                    + "database and does not work with read replicas; use jpql or memory");
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaPools.replicas(),
+                tracker, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    public record ReplicaPools(List<ReplicaRoutingDataSource.WeightedDataSource> replicas) implements AutoCloseable {
+        @Override
+        public void close() {
+            replicas.forEach(replica -> ((HikariDataSource) replica.dataSource()).close());
+        }
+    }
+}
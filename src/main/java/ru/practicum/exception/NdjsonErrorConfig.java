@@ -0,0 +1,21 @@
+package ru.practicum.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class NdjsonErrorConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+
+    // В конец списка: при Accept */* ошибка по-прежнему уходит как application/json
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new NdjsonErrorHttpMessageConverter(objectMapper));
+    }
+}
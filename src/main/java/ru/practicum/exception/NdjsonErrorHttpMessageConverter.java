@@ -0,0 +1,43 @@
+package ru.practicum.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Ошибка на запрос с Accept: application/x-ndjson отдаётся одной строкой NDJSON, а не превращается в 500
+public class NdjsonErrorHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    private final ObjectMapper objectMapper;
+
+    public NdjsonErrorHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ErrorResponse.class.isAssignableFrom(clazz) || ValidationErrorResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Error responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        out.write(objectMapper.writeValueAsBytes(body));
+        out.write('\n');
+    }
+}
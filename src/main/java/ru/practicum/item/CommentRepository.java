@@ -1,13 +1,17 @@
 package ru.practicum.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import ru.practicum.item.Comment;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
-
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemOwnerId(Long ownerId);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
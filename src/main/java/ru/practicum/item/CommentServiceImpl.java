@@ -6,9 +6,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.booking.Booking;
 import ru.practicum.booking.BookingRepository;
+import ru.practicum.cache.JsonResponseCache;
 import ru.practicum.exception.InvalidCommentException;
 import ru.practicum.exception.NotFoundException;
 import ru.practicum.item.dto.CommentDto;
+import ru.practicum.item.summary.ItemSummaryService;
 import ru.practicum.user.User;
 import ru.practicum.user.UserRepository;
 
@@ -25,6 +27,8 @@ public class CommentServiceImpl implements CommentService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
+    private final ItemSummaryService itemSummaryService;
+    private final JsonResponseCache itemJsonCache;
 
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -49,6 +53,8 @@ public class CommentServiceImpl implements CommentService {
         comment.setCreated(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
+        itemSummaryService.onCommentAdded(itemId);
+        itemJsonCache.evict(itemId);
         log.debug("Added comment with id {}", savedComment.getId());
 
         return commentMapper.toDto(savedComment);
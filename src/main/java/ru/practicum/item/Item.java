@@ -10,19 +10,25 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.user.User;
 import ru.practicum.item.Comment;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "items", schema = "public")
 @Getter
 @Setter
@@ -31,7 +37,8 @@ import java.util.List;
 @AllArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -50,6 +57,13 @@ public class Item {
     @Column(name = "request_id")
     private Long requestId;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Кэшируются только id комментариев, сами комментарии берутся из региона comments
     @OneToMany(mappedBy = "item")
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item-comments")
     private List<Comment> comments = new ArrayList<>();
 }
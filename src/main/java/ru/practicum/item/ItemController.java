@@ -1,6 +1,11 @@
 package ru.practicum.item;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,21 +16,34 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.cache.JsonResponseCache;
 import ru.practicum.item.dto.CommentDto;
+import ru.practicum.item.dto.ItemAvailabilityDto;
+import ru.practicum.item.dto.ItemBatchResultDto;
 import ru.practicum.item.dto.ItemDto;
+import ru.practicum.util.ETags;
 import ru.practicum.util.HttpHeaders;
+import ru.practicum.util.NdjsonStreamer;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/items")
+@RequiredArgsConstructor
+@Validated
 public class ItemController {
-    private final ItemService itemService;
+    private static final int MAX_BATCH_SIZE = 1000;
 
-    public ItemController(ItemService itemService) {
-        this.itemService = itemService;
-    }
+    private final ItemService itemService;
+    private final NdjsonStreamer ndjsonStreamer;
+    private final JsonResponseCache itemJsonCache;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -34,18 +52,52 @@ public class ItemController {
         return itemService.create(itemDto, ownerId);
     }
 
+    // Пакет, в котором ни один предмет не прошёл проверку, — ошибка запроса целиком
+    @PostMapping("/batch")
+    public ResponseEntity<ItemBatchResultDto> createAll(
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId,
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE) List<ItemDto> itemDtos) {
+        ItemBatchResultDto result = itemService.createAll(itemDtos, ownerId);
+        return ResponseEntity.status(result.getCreated().isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED)
+                .body(result);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId,
                           @PathVariable Long itemId,
+                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                           @RequestBody ItemDto itemDto) {
         itemDto.setId(itemId);
-        return itemService.update(itemDto, ownerId);
+        return itemService.update(itemDto, ownerId, ETags.expectedVersion(ifMatch));
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getById(@PathVariable Long itemId,
-                           @RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId) {
-        return itemService.getById(itemId, ownerId);
+    public ResponseEntity<?> getById(
+            @PathVariable Long itemId,
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<ItemETag> eTag = itemService.getETag(itemId, ownerId);
+        if (eTag.isEmpty() || eTag.get().owner()) {
+            return ETags.conditional(eTag.map(ItemETag::value), ifNoneMatch,
+                    () -> itemService.getById(itemId, ownerId));
+        }
+
+        // Вид не-владельца одинаков для всех пользователей, поэтому JSON берётся из общего кэша по ETag
+        String value = eTag.get().value();
+        if (ETags.matches(ifNoneMatch, value)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(value).build();
+        }
+        return itemJsonCache.get(itemId, value, JsonResponseCache.acceptsGzip(acceptEncoding),
+                        () -> requireNonOwnerView(itemService.getById(itemId, ownerId)))
+                .toResponse(ResponseEntity.ok().eTag(value));
+    }
+
+    private static ItemDto requireNonOwnerView(ItemDto itemDto) {
+        if (itemDto.getLastBooking() != null || itemDto.getNextBooking() != null) {
+            throw new IllegalStateException("Owner view of item " + itemDto.getId() + " must not be cached");
+        }
+        return itemDto;
     }
 
     @GetMapping
@@ -53,9 +105,32 @@ public class ItemController {
         return itemService.getAllByOwner(ownerId);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllByOwner(
+            @RequestHeader(HttpHeaders.USER_ID_HEADER) Long ownerId) {
+        return ndjsonStreamer.<ItemDto>stream(consumer -> itemService.streamAllByOwner(ownerId, consumer));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return text.isBlank() ? List.of() : itemService.search(text);
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                @RequestParam(required = false) @Positive Integer size) {
+        return itemService.search(text, from, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearch(@RequestParam String text,
+                                                              @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                              @RequestParam(required = false) @Positive Integer size) {
+        return ndjsonStreamer.<ItemDto>stream(consumer -> itemService.streamSearch(text, from, size, consumer));
     }
 
     @PostMapping("/{itemId}/comment")
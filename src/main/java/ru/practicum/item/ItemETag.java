@@ -0,0 +1,5 @@
+package ru.practicum.item;
+
+// owner: ETag вида владельца, с бронированиями; такой ответ нельзя отдавать из общего кэша
+public record ItemETag(String value, boolean owner) {
+}
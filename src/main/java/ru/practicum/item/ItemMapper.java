@@ -19,9 +19,13 @@ public interface ItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", source = "owner")
     @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "name", source = "itemDto.name")  // Явное указание источника для name
     Item toItem(ItemDto itemDto, User owner);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "owner", ignore = true)
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateItemFromDto(ItemDto itemDto, @MappingTarget Item item);
 }
@@ -1,18 +1,56 @@
 package ru.practicum.item;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Item> findByOwnerIdOrderById(Long ownerId);
 
     @Query("SELECT i FROM Item i " +
             "WHERE i.available = true AND " +
             "(LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%')))")
-    List<Item> search(String text);
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
+            "ORDER BY i.id")
+    List<Item> search(String text, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.owner.id = ?1 ORDER BY i.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    Stream<Item> streamByOwnerId(Long ownerId);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = true AND " +
+            "(LOWER(i.name) LIKE LOWER(CONCAT('%', ?1, '%')) OR " +
+            "LOWER(i.description) LIKE LOWER(CONCAT('%', ?1, '%'))) " +
+            "ORDER BY i.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    Stream<Item> streamSearch(String text, Pageable pageable);
 
     List<Item> findByRequestId(Long requestId);
+
+    @Query("SELECT CASE WHEN i.owner.id = ?2 THEN 'OWNER' ELSE 'NONE' END FROM Item i WHERE i.id = ?1")
+    Optional<String> findAccessRole(Long itemId, Long userId);
+
+    @Query("SELECT new ru.practicum.item.ItemVersion(i.version, i.owner.id, s.lastBookingId, s.nextBookingId, " +
+            "s.nextBookingStart, s.commentCount, " +
+            "(SELECT COALESCE(SUM(a.version), 0) FROM Comment c JOIN c.author a WHERE c.item.id = i.id)) " +
+            "FROM Item i LEFT JOIN ItemSummary s ON s.itemId = i.id WHERE i.id = ?1")
+    Optional<ItemVersion> findVersion(Long itemId);
+
+    @Query(value = "SELECT * FROM items WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    Optional<Item> findByIdForUpdate(Long id);
 }
@@ -1,21 +1,36 @@
 package ru.practicum.item;
 
 import ru.practicum.item.dto.CommentDto;
+import ru.practicum.item.dto.ItemAvailabilityDto;
+import ru.practicum.item.dto.ItemBatchResultDto;
 import ru.practicum.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
     ItemDto create(ItemDto itemDto, Long ownerId);
 
-    ItemDto update(ItemDto itemDto, Long ownerId);
+    ItemBatchResultDto createAll(List<ItemDto> itemDtos, Long ownerId);
+
+    ItemDto update(ItemDto itemDto, Long ownerId, Long expectedVersion);
 
     ItemDto getById(Long id, Long ownerId);
 
+    Optional<ItemETag> getETag(Long id, Long userId);
+
     List<ItemDto> getAllByOwner(Long ownerId);
 
-    List<ItemDto> search(String text);
+    void streamAllByOwner(Long ownerId, Consumer<ItemDto> consumer);
+
+    List<ItemDto> search(String text, Integer from, Integer size);
+
+    void streamSearch(String text, Integer from, Integer size, Consumer<ItemDto> consumer);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
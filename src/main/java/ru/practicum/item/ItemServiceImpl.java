@@ -1,34 +1,64 @@
 package ru.practicum.item;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.access.AccessRole;
+import ru.practicum.access.AccessService;
 import ru.practicum.booking.Booking;
 import ru.practicum.booking.BookingRepository;
+import ru.practicum.booking.timeline.BookingTimelineIndex;
+import ru.practicum.cache.JsonResponseCache;
 import ru.practicum.exception.InvalidCommentException;
 import ru.practicum.exception.NotFoundException;
+import ru.practicum.exception.ValidationException;
+import ru.practicum.exception.Violation;
 import ru.practicum.item.dto.CommentDto;
+import ru.practicum.item.dto.ItemAvailabilityDto;
+import ru.practicum.item.dto.ItemBatchResultDto;
 import ru.practicum.item.dto.ItemDto;
+import ru.practicum.item.search.ItemSearchProvider;
+import ru.practicum.item.summary.ItemSummary;
+import ru.practicum.item.summary.ItemSummaryService;
 import ru.practicum.user.User;
 import ru.practicum.user.UserRepository;
+import ru.practicum.util.ETags;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
+    private final ItemSearchProvider itemSearchProvider;
+    private final BookingTimelineIndex timelineIndex;
+    private final AccessService accessService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final ItemSummaryService itemSummaryService;
+    private final JsonResponseCache itemJsonCache;
 
     @Override
     @Transactional
@@ -42,6 +72,8 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = itemMapper.toItem(itemDto, owner);
         Item savedItem = itemRepository.save(item);
+        itemSummaryService.createFor(List.of(savedItem));
+        itemSearchProvider.index(savedItem);
         log.debug("Created item with id {}", savedItem.getId());
 
         return itemMapper.toItemDto(savedItem);
@@ -49,21 +81,65 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional
-    public ItemDto update(ItemDto itemDto, Long ownerId) {
+    public ItemBatchResultDto createAll(List<ItemDto> itemDtos, Long ownerId) {
+        log.info("Creating {} items for owner {}", itemDtos.size(), ownerId);
+        User owner = userRepository.findById(ownerId)
+                .orElseThrow(() -> {
+                    log.error("User with id {} not found", ownerId);
+                    return new NotFoundException("User not found");
+                });
+
+        List<Item> items = new ArrayList<>(itemDtos.size());
+        List<ItemBatchResultDto.ItemError> errors = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            if (itemDto == null) {
+                errors.add(new ItemBatchResultDto.ItemError(i, List.of(new Violation("item", "must not be null"))));
+                continue;
+            }
+            Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+            if (!violations.isEmpty()) {
+                errors.add(new ItemBatchResultDto.ItemError(i, violations.stream()
+                        .map(v -> new Violation(v.getPropertyPath().toString(), v.getMessage()))
+                        .collect(Collectors.toList())));
+                continue;
+            }
+            items.add(itemMapper.toItem(itemDto, owner));
+        }
+
+        List<Item> savedItems = itemRepository.saveAll(items);
+        itemSummaryService.createFor(savedItems);
+        savedItems.forEach(itemSearchProvider::index);
+        log.debug("Created {} items, rejected {}", savedItems.size(), errors.size());
+
+        List<ItemDto> created = savedItems.stream()
+                .map(itemMapper::toItemDto)
+                .collect(Collectors.toList());
+        return new ItemBatchResultDto(created, errors);
+    }
+
+    @Override
+    @Transactional
+    public ItemDto update(ItemDto itemDto, Long ownerId, Long expectedVersion) {
         log.info("Updating item {} for owner {}", itemDto.getId(), ownerId);
-        Item existingItem = itemRepository.findById(itemDto.getId())
+        AccessRole role = accessService.getItemRole(ownerId, itemDto.getId())
                 .orElseThrow(() -> {
                     log.error("Item with id {} not found", itemDto.getId());
                     return new NotFoundException("Item not found");
                 });
-
-        if (!existingItem.getOwner().getId().equals(ownerId)) {
+        if (role != AccessRole.OWNER) {
             log.error("User {} is not owner of item {}", ownerId, itemDto.getId());
             throw new NotFoundException("Only owner can update item");
         }
 
+        Item existingItem = itemRepository.findById(itemDto.getId())
+                .orElseThrow(() -> new NotFoundException("Item not found"));
+        ETags.checkVersion(expectedVersion, existingItem.getVersion());
+
         itemMapper.updateItemFromDto(itemDto, existingItem);
         Item updatedItem = itemRepository.save(existingItem);
+        itemJsonCache.evict(updatedItem.getId());
+        itemSearchProvider.index(updatedItem);
         log.debug("Updated item with id {}", updatedItem.getId());
 
         return itemMapper.toItemDto(updatedItem);
@@ -82,27 +158,88 @@ public class ItemServiceImpl implements ItemService {
         return enrichAndConvertToDto(item, ownerId);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ItemETag> getETag(Long id, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return itemRepository.findVersion(id)
+                // Без сводки или с устаревшей сводкой ответ собирается на лету, сравнивать не с чем
+                .filter(version -> version.commentCount() != null)
+                .filter(version -> !version.ownerId().equals(userId) || version.nextBookingStart() == null
+                        || version.nextBookingStart().isAfter(now))
+                .map(version -> version.ownerId().equals(userId)
+                        ? new ItemETag(ETags.of(version.version(), "o", version.commentCount(),
+                                version.authorsVersion(), version.lastBookingId(), version.nextBookingId()), true)
+                        : new ItemETag(ETags.of(version.version(), "v", version.commentCount(),
+                                version.authorsVersion()), false));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllByOwner(Long ownerId) {
         log.info("Getting all items for owner {}", ownerId);
-        return itemRepository.findByOwnerIdOrderById(ownerId).stream()
-                .map(item -> enrichAndConvertToDto(item, ownerId))
+        List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemSummary> summaries = itemSummaryService.getByOwner(ownerId, itemIds, LocalDateTime.now());
+        Map<Long, List<CommentDto>> comments = groupCommentsByItemId(commentRepository.findByItemOwnerId(ownerId));
+
+        return items.stream()
+                .map(item -> toOwnerItemDto(item, summaries.get(item.getId()), comments))
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> search(String text) {
+    public void streamAllByOwner(Long ownerId, Consumer<ItemDto> consumer) {
+        log.info("Streaming all items for owner {}", ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Item> items = itemRepository.streamByOwnerId(ownerId)) {
+            for (Item item : (Iterable<Item>) items::iterator) {
+                chunk.add(item);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    writeOwnerChunk(chunk, now, consumer);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeOwnerChunk(chunk, now, consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> search(String text, Integer from, Integer size) {
         log.info("Searching items by text: {}", text);
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text).stream()
+        return itemSearchProvider.search(text, from, pageSize(size)).stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSearch(String text, Integer from, Integer size, Consumer<ItemDto> consumer) {
+        log.info("Streaming items by text: {}", text);
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        try (Stream<Item> items = itemSearchProvider.stream(text, from, pageSize(size))) {
+            items.forEach(item -> {
+                consumer.accept(itemMapper.toItemDto(item));
+                entityManager.detach(item);
+            });
+        }
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
@@ -127,11 +264,38 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
+        itemSummaryService.onCommentAdded(itemId);
+        itemJsonCache.evict(itemId);
         log.debug("Added comment with id {}", savedComment.getId());
 
         return commentMapper.toDto(savedComment);
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Getting availability of item {} between {} and {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability range start must be before its end");
+        }
+        if (itemRepository.findById(itemId).isEmpty()) {
+            log.error("Item with id {} not found", itemId);
+            throw new NotFoundException("Item not found");
+        }
+
+        long[] slots = timelineIndex.freeSlots(itemId, from, to);
+        List<ItemAvailabilityDto.Slot> freeSlots = new ArrayList<>(slots.length / 2);
+        for (int i = 0; i < slots.length; i += 2) {
+            freeSlots.add(new ItemAvailabilityDto.Slot(
+                    BookingTimelineIndex.fromEpoch(slots[i]), BookingTimelineIndex.fromEpoch(slots[i + 1])));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, freeSlots);
+    }
+
+    // Без size поиск отдаёт все совпадения начиная с from
+    private static int pageSize(Integer size) {
+        return size == null ? Integer.MAX_VALUE : size;
+    }
+
     private ItemDto enrichAndConvertToDto(Item item, Long ownerId) {
         ItemDto itemDto = itemMapper.toItemDto(item);
         enrichItemDtoWithAdditionalData(itemDto, item, ownerId);
@@ -139,32 +303,63 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private void enrichItemDtoWithAdditionalData(ItemDto itemDto, Item item, Long ownerId) {
+        ItemSummary summary = itemSummaryService.get(item.getId(), LocalDateTime.now());
         if (item.getOwner().getId().equals(ownerId)) {
-            LocalDateTime now = LocalDateTime.now();
-            addBookingInfo(itemDto, item.getId(), now);
+            addBookingInfo(itemDto, summary);
+        }
+        if (summary.getCommentCount() > 0) {
+            addCommentsInfo(itemDto, item);
+        } else {
+            itemDto.setComments(new ArrayList<>());
         }
-        addCommentsInfo(itemDto, item.getId());
     }
 
-    private void addBookingInfo(ItemDto itemDto, Long itemId, LocalDateTime now) {
-        bookingRepository.findLastBooking(itemId, now).stream()
-                .findFirst()
-                .ifPresent(booking -> itemDto.setLastBooking(
-                        new ItemDto.BookingShort(booking.getId(), booking.getBooker().getId())));
-
-        bookingRepository.findNextBooking(itemId, now).stream()
-                .findFirst()
-                .ifPresent(booking -> itemDto.setNextBooking(
-                        new ItemDto.BookingShort(booking.getId(), booking.getBooker().getId())));
+    private void addBookingInfo(ItemDto itemDto, ItemSummary summary) {
+        if (summary.getLastBookingId() != null) {
+            itemDto.setLastBooking(new ItemDto.BookingShort(summary.getLastBookingId(), summary.getLastBookerId()));
+        }
+        if (summary.getNextBookingId() != null) {
+            itemDto.setNextBooking(new ItemDto.BookingShort(summary.getNextBookingId(), summary.getNextBookerId()));
+        }
     }
 
-    private void addCommentsInfo(ItemDto itemDto, Long itemId) {
-        List<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
+    private void addCommentsInfo(ItemDto itemDto, Item item) {
+        List<CommentDto> comments = item.getComments().stream()
                 .map(commentMapper::toDto)
                 .collect(Collectors.toList());
         itemDto.setComments(comments);
     }
 
+    // Сводки и комментарии подгружаются на порцию, затем контекст очищается, чтобы память не росла
+    private void writeOwnerChunk(List<Item> chunk, LocalDateTime now, Consumer<ItemDto> consumer) {
+        List<Long> itemIds = chunk.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemSummary> summaries = itemSummaryService.getAll(itemIds, now);
+        List<Long> commented = itemIds.stream()
+                .filter(itemId -> summaries.get(itemId).getCommentCount() > 0)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = commented.isEmpty() ? Map.of() :
+                groupCommentsByItemId(commentRepository.findByItemIdIn(commented));
+
+        chunk.forEach(item -> consumer.accept(toOwnerItemDto(item, summaries.get(item.getId()), comments)));
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private ItemDto toOwnerItemDto(Item item, ItemSummary summary, Map<Long, List<CommentDto>> comments) {
+        ItemDto itemDto = itemMapper.toItemDto(item);
+        addBookingInfo(itemDto, summary);
+        itemDto.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+        return itemDto;
+    }
+
+    private Map<Long, List<CommentDto>> groupCommentsByItemId(List<Comment> comments) {
+        return comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+    }
+
     private void validateUserBookedItem(Long itemId, Long userId) {
         List<Booking> bookings = bookingRepository.findCompletedBookings(
                 itemId, userId, LocalDateTime.now());
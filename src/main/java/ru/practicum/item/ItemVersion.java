@@ -0,0 +1,9 @@
+package ru.practicum.item;
+
+import java.time.LocalDateTime;
+
+// Версия вещи и поля сводки, от которых зависит ItemDto; поля сводки null, если строки item_summary нет.
+// authorsVersion — сумма версий авторов комментариев: растёт при любом изменении автора, а с ним и authorName
+public record ItemVersion(Long version, Long ownerId, Long lastBookingId, Long nextBookingId,
+                          LocalDateTime nextBookingStart, Long commentCount, Long authorsVersion) {
+}
@@ -0,0 +1,225 @@
+package ru.practicum.item.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over item name and description.
+ * A document keeps only its id and token frequencies. Trigrams of the tokens select candidates for substring
+ * matches, token postings feed BM25 ranking. Candidates are a superset of the matches: the caller checks the
+ * substring against the loaded item. Only available items are kept in the index.
+ */
+public class InMemoryItemIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Map<Long, Integer>> tokenPostings = new HashMap<>();
+    private final Map<String, Set<Long>> gramPostings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    public void put(Long id, String name, String description, boolean available) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            if (available) {
+                addDocument(Document.of(id, normalize(name), normalize(description)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            tokenPostings.clear();
+            gramPostings.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked candidates for a case-insensitive substring match, best first, ties by id.
+     */
+    public List<Long> search(String text) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        List<String> queryTokens = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            double averageLength = documents.isEmpty() ? 0 : (double) totalLength / documents.size();
+            List<ScoredDocument> matches = new ArrayList<>();
+            for (Long id : candidates(queryTokens)) {
+                matches.add(new ScoredDocument(id, score(documents.get(id), queryTokens, averageLength)));
+            }
+            matches.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+                    .thenComparing(ScoredDocument::id));
+            return matches.stream()
+                    .map(ScoredDocument::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Каждый токен запроса должен встречаться внутри какого-то токена документа
+    private Collection<Long> candidates(List<String> queryTokens) {
+        if (queryTokens.isEmpty()) {
+            return documents.keySet();
+        }
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String token : queryTokens) {
+            if (token.length() < GRAM_SIZE) {
+                postings.add(containing(token));
+                continue;
+            }
+            for (String gram : grams(token)) {
+                postings.add(gramPostings.getOrDefault(gram, Set.of()));
+            }
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    // Короткий токен не даёт ни одной триграммы, поэтому просматривается словарь, а не документы
+    private Set<Long> containing(String token) {
+        Set<Long> result = new HashSet<>();
+        tokenPostings.forEach((indexed, posting) -> {
+            if (indexed.contains(token)) {
+                result.addAll(posting.keySet());
+            }
+        });
+        return result;
+    }
+
+    private double score(Document document, List<String> queryTokens, double averageLength) {
+        double score = 0;
+        for (String token : queryTokens) {
+            Integer frequency = document.tokens.get(token);
+            if (frequency == null) {
+                continue;
+            }
+            int documentFrequency = tokenPostings.get(token).size();
+            double idf = Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            double lengthNorm = 1 - B + B * document.length / averageLength;
+            score += idf * frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+        }
+        return score;
+    }
+
+    private void addDocument(Document document) {
+        documents.put(document.id, document);
+        document.tokens.forEach((token, frequency) ->
+                tokenPostings.computeIfAbsent(token, k -> new HashMap<>()).put(document.id, frequency));
+        grams(document.tokens.keySet()).forEach(gram ->
+                gramPostings.computeIfAbsent(gram, k -> new HashSet<>()).add(document.id));
+        totalLength += document.length;
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        document.tokens.keySet().forEach(token -> {
+            Map<Long, Integer> posting = tokenPostings.get(token);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                tokenPostings.remove(token);
+            }
+        });
+        grams(document.tokens.keySet()).forEach(gram -> {
+            Set<Long> posting = gramPostings.get(gram);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                gramPostings.remove(gram);
+            }
+        });
+        totalLength -= document.length;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> grams(Collection<String> tokens) {
+        Set<String> grams = new HashSet<>();
+        tokens.forEach(token -> grams.addAll(grams(token)));
+        return grams;
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+            grams.add(token.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private record ScoredDocument(Long id, double score) {
+    }
+
+    private record Document(Long id, Map<String, Integer> tokens, int length) {
+
+        private static Document of(Long id, String name, String description) {
+            List<String> allTokens = new ArrayList<>(tokenize(name));
+            allTokens.addAll(tokenize(description));
+            Map<String, Integer> tokens = new HashMap<>();
+            allTokens.forEach(token -> tokens.merge(token, 1, Integer::sum));
+            return new Document(id, tokens, allTokens.size());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.item.Item;
+import ru.practicum.item.ItemRepository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "memory")
+public class InMemoryItemSearchProvider implements ItemSearchProvider {
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final InMemoryItemIndex index = new InMemoryItemIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.clear();
+        Page<Item> page;
+        int pageNumber = 0;
+        do {
+            page = itemRepository.findAll(PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            page.forEach(item -> index.put(item.getId(), item.getName(), item.getDescription(),
+                    Boolean.TRUE.equals(item.getAvailable())));
+        } while (page.hasNext());
+        log.info("Rebuilt in-memory item index with {} available items", index.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return stream(text, from, size).collect(Collectors.toList());
+    }
+
+    // В памяти только ранжированные кандидаты; предметы читаются из базы порциями по мере записи ответа,
+    // а совпадение подстроки проверяется по прочитанному предмету до пропуска from
+    @Override
+    public Stream<Item> stream(String text, int from, int size) {
+        List<Long> ids = index.search(text);
+        String query = text.toLowerCase(Locale.ROOT);
+        return IntStream.range(0, (ids.size() + STREAM_CHUNK_SIZE - 1) / STREAM_CHUNK_SIZE)
+                .mapToObj(chunk -> ids.subList(chunk * STREAM_CHUNK_SIZE,
+                        Math.min(ids.size(), (chunk + 1) * STREAM_CHUNK_SIZE)))
+                .flatMap(this::load)
+                .filter(item -> matches(item, query))
+                .skip(from)
+                .limit(size);
+    }
+
+    private static boolean matches(Item item, String query) {
+        return Boolean.TRUE.equals(item.getAvailable())
+                && (item.getName().toLowerCase(Locale.ROOT).contains(query)
+                || item.getDescription().toLowerCase(Locale.ROOT).contains(query));
+    }
+
+    private Stream<Item> load(List<Long> ids) {
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public void index(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Runnable update = () -> index.put(id, name, description, available);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
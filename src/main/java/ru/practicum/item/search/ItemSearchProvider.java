@@ -0,0 +1,18 @@
+package ru.practicum.item.search;
+
+import ru.practicum.item.Item;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ItemSearchProvider {
+
+    List<Item> search(String text, int from, int size);
+
+    default Stream<Item> stream(String text, int from, int size) {
+        return search(text, from, size).stream();
+    }
+
+    default void index(Item item) {
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.item.Item;
+import ru.practicum.item.ItemRepository;
+import ru.practicum.util.OffsetPageRequest;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "jpql", matchIfMissing = true)
+public class JpqlItemSearchProvider implements ItemSearchProvider {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        return itemRepository.search(text, OffsetPageRequest.of(from, size));
+    }
+
+    @Override
+    public Stream<Item> stream(String text, int from, int size) {
+        return itemRepository.streamSearch(text, OffsetPageRequest.of(from, size));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.item.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.item.Item;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+// Колонка search_vector и индекс GIN создаются в schema-postgresql.sql
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "postgresql")
+public class PostgresFullTextItemSearchProvider implements ItemSearchProvider {
+    private static final String SEARCH_QUERY = "SELECT i.id, i.name, i.description, i.available, " +
+            "i.owner_id, i.request_id, i.version " +
+            "FROM items i, plainto_tsquery('simple', ?1) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT ?2 OFFSET ?3";
+
+    private static final int STREAM_FETCH_SIZE = 100;
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, int from, int size) {
+        return query(text, from, size).getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Item> stream(String text, int from, int size) {
+        return query(text, from, size)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.GET)
+                .getResultStream();
+    }
+
+    private Query query(String text, int from, int size) {
+        return entityManager.createNativeQuery(SEARCH_QUERY, Item.class)
+                .setParameter(1, text)
+                .setParameter(2, size)
+                .setParameter(3, from);
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.item.summary;
+
+public record ItemCommentCount(Long itemId, long count) {
+}
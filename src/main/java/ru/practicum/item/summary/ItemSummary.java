@@ -0,0 +1,67 @@
+package ru.practicum.item.summary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.booking.Booking;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_summary", schema = "public")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ItemSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    public ItemSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    // Последнее и следующее бронирование меняются без событий только когда наступает начало следующего
+    public boolean isStaleAt(LocalDateTime now) {
+        return nextBookingStart != null && !nextBookingStart.isAfter(now);
+    }
+
+    public void setLastBooking(Booking booking) {
+        lastBookingId = booking == null ? null : booking.getId();
+        lastBookerId = booking == null ? null : booking.getBooker().getId();
+        lastBookingStart = booking == null ? null : booking.getStart();
+    }
+
+    public void setNextBooking(Booking booking) {
+        nextBookingId = booking == null ? null : booking.getId();
+        nextBookerId = booking == null ? null : booking.getBooker().getId();
+        nextBookingStart = booking == null ? null : booking.getStart();
+    }
+}
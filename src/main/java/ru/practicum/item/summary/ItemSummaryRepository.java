@@ -0,0 +1,43 @@
+package ru.practicum.item.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+
+    @Query("SELECT s FROM ItemSummary s WHERE s.itemId IN (SELECT i.id FROM Item i WHERE i.owner.id = ?1)")
+    List<ItemSummary> findByOwnerId(Long ownerId);
+
+    @Query("SELECT s.itemId FROM ItemSummary s WHERE s.nextBookingStart <= ?1 ORDER BY s.itemId")
+    List<Long> findStaleItemIds(LocalDateTime now, Pageable pageable);
+
+    @Query(value = "SELECT * FROM item_summary WHERE item_id IN ?1 FOR UPDATE", nativeQuery = true)
+    List<ItemSummary> findAllByIdForUpdate(Collection<Long> itemIds);
+
+    @Query("SELECT i.id FROM Item i WHERE NOT EXISTS (SELECT s FROM ItemSummary s WHERE s.itemId = i.id) " +
+            "ORDER BY i.id")
+    List<Long> findItemIdsWithoutSummary(Pageable pageable);
+
+    @Query("SELECT new ru.practicum.item.summary.ItemCommentCount(c.item.id, COUNT(c)) " +
+            "FROM Comment c WHERE c.item.id IN ?1 GROUP BY c.item.id")
+    List<ItemCommentCount> countComments(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("UPDATE ItemSummary s SET s.lastBookingId = ?2, s.lastBookerId = ?3, s.lastBookingStart = ?4 " +
+            "WHERE s.itemId = ?1 AND (s.lastBookingStart IS NULL OR s.lastBookingStart < ?4)")
+    int advanceLastBooking(Long itemId, Long bookingId, Long bookerId, LocalDateTime start);
+
+    @Modifying
+    @Query("UPDATE ItemSummary s SET s.nextBookingId = ?2, s.nextBookerId = ?3, s.nextBookingStart = ?4 " +
+            "WHERE s.itemId = ?1 AND (s.nextBookingStart IS NULL OR s.nextBookingStart > ?4)")
+    int advanceNextBooking(Long itemId, Long bookingId, Long bookerId, LocalDateTime start);
+
+    @Modifying
+    @Query("UPDATE ItemSummary s SET s.commentCount = s.commentCount + 1 WHERE s.itemId = ?1")
+    int incrementCommentCount(Long itemId);
+}
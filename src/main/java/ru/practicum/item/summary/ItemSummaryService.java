@@ -0,0 +1,23 @@
+package ru.practicum.item.summary;
+
+import ru.practicum.booking.Booking;
+import ru.practicum.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemSummaryService {
+
+    void createFor(Collection<Item> items);
+
+    void onBookingApproved(Booking booking);
+
+    void onCommentAdded(Long itemId);
+
+    ItemSummary get(Long itemId, LocalDateTime now);
+
+    Map<Long, ItemSummary> getAll(Collection<Long> itemIds, LocalDateTime now);
+
+    Map<Long, ItemSummary> getByOwner(Long ownerId, Collection<Long> itemIds, LocalDateTime now);
+}
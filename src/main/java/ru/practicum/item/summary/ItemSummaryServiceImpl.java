@@ -0,0 +1,173 @@
+package ru.practicum.item.summary;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.booking.Booking;
+import ru.practicum.booking.BookingRepository;
+import ru.practicum.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemSummaryServiceImpl implements ItemSummaryService {
+    private static final int BATCH_SIZE = 100;
+    private static final Comparator<Booking> BY_ID = Comparator.comparing(Booking::getId);
+
+    private final ItemSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void createFor(Collection<Item> items) {
+        items.forEach(item -> entityManager.persist(new ItemSummary(item.getId())));
+    }
+
+    // Условные UPDATE не теряют конкурентные подтверждения и не откатывают сводку назад
+    @Override
+    @Transactional
+    public void onBookingApproved(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        Long itemId = booking.getItem().getId();
+        Long bookerId = booking.getBooker().getId();
+        if (booking.getStart().isBefore(now)) {
+            summaryRepository.advanceLastBooking(itemId, booking.getId(), bookerId, booking.getStart());
+        } else if (booking.getStart().isAfter(now)) {
+            summaryRepository.advanceNextBooking(itemId, booking.getId(), bookerId, booking.getStart());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onCommentAdded(Long itemId) {
+        summaryRepository.incrementCommentCount(itemId);
+    }
+
+    @Override
+    public ItemSummary get(Long itemId, LocalDateTime now) {
+        Map<Long, ItemSummary> summaries = new HashMap<>();
+        summaryRepository.findById(itemId).ifPresent(summary -> summaries.put(itemId, summary));
+        return resolve(List.of(itemId), summaries, now).get(itemId);
+    }
+
+    @Override
+    public Map<Long, ItemSummary> getAll(Collection<Long> itemIds, LocalDateTime now) {
+        return resolve(itemIds, toMap(summaryRepository.findAllById(itemIds)), now);
+    }
+
+    @Override
+    public Map<Long, ItemSummary> getByOwner(Long ownerId, Collection<Long> itemIds, LocalDateTime now) {
+        return resolve(itemIds, toMap(summaryRepository.findByOwnerId(ownerId)), now);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-summary.refresh-interval:PT1M}",
+            initialDelayString = "${shareit.item-summary.refresh-interval:PT1M}")
+    @Transactional
+    public void refreshStale() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshed = 0;
+        List<Long> itemIds;
+        while (!(itemIds = summaryRepository.findStaleItemIds(now, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            // Блокировка строк упорядочивает пересчёт с конкурентными подтверждениями бронирований
+            List<ItemSummary> summaries = summaryRepository.findAllByIdForUpdate(itemIds);
+            refreshBookings(summaries, now);
+            entityManager.flush();
+            entityManager.clear();
+            refreshed += summaries.size();
+        }
+        if (refreshed > 0) {
+            log.debug("Moved {} item summaries forward", refreshed);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createMissing() {
+        LocalDateTime now = LocalDateTime.now();
+        int created = 0;
+        List<Long> itemIds;
+        while (!(itemIds = summaryRepository.findItemIdsWithoutSummary(PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            Map<Long, ItemSummary> summaries = resolve(itemIds, new HashMap<>(), now);
+            summaries.values().forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+            created += summaries.size();
+        }
+        log.info("Created {} missing item summaries", created);
+    }
+
+    // Недостающие и устаревшие сводки пересчитываются в памяти, запись делает только refreshStale
+    private Map<Long, ItemSummary> resolve(Collection<Long> itemIds, Map<Long, ItemSummary> summaries,
+                                           LocalDateTime now) {
+        List<Long> missing = new ArrayList<>();
+        List<ItemSummary> outdated = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemSummary summary = summaries.get(itemId);
+            if (summary == null) {
+                missing.add(itemId);
+            } else if (summary.isStaleAt(now)) {
+                entityManager.detach(summary);
+                outdated.add(summary);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, Long> counts = summaryRepository.countComments(missing).stream()
+                    .collect(Collectors.toMap(ItemCommentCount::itemId, ItemCommentCount::count));
+            for (Long itemId : missing) {
+                ItemSummary summary = new ItemSummary(itemId);
+                summary.setCommentCount(counts.getOrDefault(itemId, 0L));
+                summaries.put(itemId, summary);
+                outdated.add(summary);
+            }
+        }
+        if (!outdated.isEmpty()) {
+            refreshBookings(outdated, now);
+        }
+        return summaries;
+    }
+
+    private void refreshBookings(Collection<ItemSummary> summaries, LocalDateTime now) {
+        List<Long> itemIds = summaries.stream()
+                .map(ItemSummary::getItemId)
+                .collect(Collectors.toList());
+        Map<Long, Booking> lastBookings = groupByItemId(bookingRepository.findLastBookingsByItemIds(itemIds, now),
+                BinaryOperator.maxBy(BY_ID));
+        Map<Long, Booking> nextBookings = groupByItemId(bookingRepository.findNextBookingsByItemIds(itemIds, now),
+                BinaryOperator.minBy(BY_ID));
+        for (ItemSummary summary : summaries) {
+            summary.setLastBooking(lastBookings.get(summary.getItemId()));
+            summary.setNextBooking(nextBookings.get(summary.getItemId()));
+        }
+    }
+
+    // Бронирования с одинаковым началом (остались с времён до защиты от пересечений) упорядочены по id,
+    // как на временной шкале: последним считается больший id, следующим — меньший
+    private Map<Long, Booking> groupByItemId(List<Booking> bookings, BinaryOperator<Booking> tieBreak) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(), tieBreak));
+    }
+
+    private Map<Long, ItemSummary> toMap(List<ItemSummary> summaries) {
+        return summaries.stream()
+                .collect(Collectors.toMap(ItemSummary::getItemId, Function.identity()));
+    }
+}
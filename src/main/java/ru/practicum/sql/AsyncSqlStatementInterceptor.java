@@ -0,0 +1,26 @@
+package ru.practicum.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+// Callable и StreamingResponseBody выполняются в потоке из пула MVC: их SQL считаются отдельно
+// и добавляются к запросу в SqlStatementFilter после завершения асинхронной части
+@RequiredArgsConstructor
+class AsyncSqlStatementInterceptor implements CallableProcessingInterceptor {
+    private final SqlStatementCounter counter;
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        request.setAttribute(SqlStatementFilter.ASYNC_STATS_ATTRIBUTE, counter.begin(),
+                RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        counter.end();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.sql;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Счётчик SQL одного запроса или одного capture(); используется из одного потока
+public class QueryStats {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // IN (?, ?, ?) разной длины — одна и та же форма запроса
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\?(\\s*,\\s*\\?)+\\)");
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int total;
+
+    void record(String sql) {
+        total++;
+        shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    void addAll(QueryStats other) {
+        total += other.total;
+        other.shapes.forEach((shape, count) -> shapes.merge(shape, count, Integer::sum));
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getShapes() {
+        return Collections.unmodifiableMap(shapes);
+    }
+
+    public int getMaxRepeats() {
+        return shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    static String shape(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return PARAMETER_LIST.matcher(normalized).replaceAll("(?)");
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Доля shareit.sql.log.sample-rate запросов пишется в логгер ru.practicum.sql.sampled на уровне DEBUG,
+ * текстом без параметров. Включается профилем async-logging; медленные запросы пишет сам Hibernate
+ * (hibernate.log_slow_query).
+ */
+@Component
+@ConditionalOnExpression("${shareit.sql.log.sample-rate:0} > 0")
+public class SampledSqlLogger implements StatementInspector {
+    private static final Logger SAMPLED = LoggerFactory.getLogger("ru.practicum.sql.sampled");
+
+    private final double sampleRate;
+
+    public SampledSqlLogger(@Value("${shareit.sql.log.sample-rate}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate && SAMPLED.isDebugEnabled()) {
+            SAMPLED.debug("{}", QueryStats.shape(sql));
+        }
+        return sql;
+    }
+}
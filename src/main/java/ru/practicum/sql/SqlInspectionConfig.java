@@ -0,0 +1,38 @@
+package ru.practicum.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+// Hibernate принимает один StatementInspector: счётчик и необязательные логгеры SQL вызываются по очереди
+@Configuration
+@RequiredArgsConstructor
+public class SqlInspectionConfig implements WebMvcConfigurer {
+    private final SqlStatementCounter counter;
+    private final List<StatementInspector> inspectors;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        StatementInspector chain = sql -> {
+            String result = sql;
+            for (StatementInspector inspector : inspectors) {
+                result = inspector.inspect(result);
+            }
+            return result;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                inspectors.size() == 1 ? inspectors.get(0) : chain);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new AsyncSqlStatementInterceptor(counter));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Считает SQL, которые Hibernate выполняет в текущем потоке, пока открыт счётчик.
+ * HTTP-запросы оборачивает {@link SqlStatementFilter}; в тестах бюджет запросов проверяется через
+ * {@link #capture(Runnable)}:
+ * {@code assertThat(counter.capture(() -> controller.getById(1L, 2L)).getTotal()).isLessThanOrEqualTo(3)}.
+ * Запросы JdbcTemplate мимо Hibernate не учитываются. Асинхронная часть HTTP-запроса (тело NDJSON-ответа)
+ * считается отдельно через {@link AsyncSqlStatementInterceptor} и попадает в тот же отчёт фильтра.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(sql);
+        }
+        return sql;
+    }
+
+    public QueryStats capture(Runnable action) {
+        return capture(() -> {
+            action.run();
+            return null;
+        }).stats();
+    }
+
+    public <T> Captured<T> capture(Supplier<T> action) {
+        QueryStats outer = CURRENT.get();
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        try {
+            return new Captured<>(action.get(), stats);
+        } finally {
+            // Вложенный capture не должен прятать запросы от внешнего
+            if (outer != null) {
+                outer.addAll(stats);
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    void end() {
+        CURRENT.remove();
+    }
+
+    public record Captured<T>(T result, QueryStats stats) {
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Число SQL на HTTP-запрос в метрике http.server.requests.sql и предупреждение о повторяющихся формах запросов
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "shareit.sql.inspection.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementFilter extends OncePerRequestFilter {
+    static final String ASYNC_STATS_ATTRIBUTE = SqlStatementFilter.class.getName() + ".ASYNC_STATS";
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+
+    public SqlStatementFilter(SqlStatementCounter counter,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.sql.n-plus-one-threshold:5}") int repeatThreshold) {
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = counter.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            counter.end();
+            if (request.isAsyncStarted()) {
+                // Ответ ещё пишется в другом потоке (NDJSON): отчёт после завершения асинхронной части
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        if (request.getAttribute(ASYNC_STATS_ATTRIBUTE) instanceof QueryStats asyncStats) {
+                            stats.addAll(asyncStats);
+                        }
+                        report(request, stats);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                report(request, stats);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getTotal());
+
+        stats.getShapes().forEach((shape, count) -> {
+            if (count > repeatThreshold) {
+                log.warn("Possible N+1 in {} {}: statement executed {} times ({} in total): {}",
+                        request.getMethod(), uri, count, stats.getTotal(), shape);
+                Counter.builder("http.server.requests.sql.n_plus_one")
+                        .description("Requests where one statement shape repeated above the threshold")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        });
+    }
+}
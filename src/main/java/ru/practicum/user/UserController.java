@@ -1,30 +1,36 @@
 package ru.practicum.user;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.dto.UserResponseDto;
 import ru.practicum.user.dto.UserUpdateDto;
+import ru.practicum.util.ETags;
+import ru.practicum.util.HttpHeaders;
+import ru.practicum.util.NdjsonStreamer;
 
 import jakarta.validation.Valid;
 import java.util.List;
 
 @RestController
 @RequestMapping("/users")
+@RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
-
-    public UserController(UserService userService) {
-        this.userService = userService;
-    }
+    private final NdjsonStreamer ndjsonStreamer;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -35,13 +41,16 @@ public class UserController {
     @PatchMapping("/{userId}")
     public UserResponseDto updateUser(
             @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UserUpdateDto userUpdateDto) {
-        return userService.update(userId, userUpdateDto);
+        return userService.update(userId, userUpdateDto, ETags.expectedVersion(ifMatch));
     }
 
     @GetMapping("/{userId}")
-    public UserResponseDto getById(@PathVariable Long userId) {
-        return userService.getById(userId);
+    public ResponseEntity<UserResponseDto> getById(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.conditional(userService.getETag(userId), ifNoneMatch, () -> userService.getById(userId));
     }
 
     @GetMapping
@@ -49,6 +58,11 @@ public class UserController {
         return userService.getAll();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ndjsonStreamer.stream(userService::streamAll);
+    }
+
     @DeleteMapping("/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long userId) {
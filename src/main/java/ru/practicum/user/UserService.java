@@ -5,16 +5,22 @@ import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.dto.UserUpdateDto;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
 
     UserResponseDto save(UserDto userDto);
 
-    UserResponseDto update(Long userId, UserUpdateDto userUpdateDto);
+    UserResponseDto update(Long userId, UserUpdateDto userUpdateDto, Long expectedVersion);
 
     UserResponseDto getById(Long id);
 
+    Optional<String> getETag(Long id);
+
     List<UserResponseDto> getAll();
 
+    void streamAll(Consumer<UserResponseDto> consumer);
+
     void delete(Long id);
 }
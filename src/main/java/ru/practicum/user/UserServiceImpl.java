@@ -1,5 +1,6 @@
 package ru.practicum.user;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -7,9 +8,13 @@ import ru.practicum.exception.NotFoundException;
 import ru.practicum.user.dto.UserDto;
 import ru.practicum.user.dto.UserResponseDto;
 import ru.practicum.user.dto.UserUpdateDto;
+import ru.practicum.util.ETags;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +22,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -28,9 +34,10 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
-    public UserResponseDto update(Long userId, UserUpdateDto userUpdateDto) {
+    public UserResponseDto update(Long userId, UserUpdateDto userUpdateDto, Long expectedVersion) {
         User existingUser = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
+        ETags.checkVersion(expectedVersion, existingUser.getVersion());
         userMapper.updateUserFromDto(userUpdateDto, existingUser);
         User updatedUser = userRepository.save(existingUser);
         return userMapper.toUserResponseDto(updatedUser);
@@ -44,6 +51,14 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserResponseDto(user);
     }
 
+    // Версия берётся из кэша второго уровня: Hibernate обновляет запись при коммите изменения, поэтому версия актуальна
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getETag(Long id) {
+        return userRepository.findById(id)
+                .map(user -> ETags.of(user.getVersion()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<UserResponseDto> getAll() {
@@ -52,6 +67,17 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserResponseDto> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toUserResponseDto(user));
+                entityManager.detach(user);
+            });
+        }
+    }
+
     @Override
     @Transactional
     public void delete(Long id) {
@@ -0,0 +1,72 @@
+package ru.practicum.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.exception.PreconditionFailedException;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Сильные ETag вида "версия-часть-часть". Версия сущности всегда первая: If-Match на PATCH сравнивается
+ * только с ней, поэтому проверка идёт по уже загруженной сущности, без сборки полного ETag.
+ */
+public final class ETags {
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    public static String of(Object version, Object... parts) {
+        return Stream.concat(Stream.of(version), Arrays.stream(parts))
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    // If-None-Match сравнивается слабо (RFC 9110, 13.1.2)
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(candidate -> candidate.startsWith(WEAK_PREFIX) ? candidate.substring(2) : candidate)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
+    }
+
+    // ETag сначала, тело потом: изменение между ними даст лишний 200, но не устаревший 304
+    public static <T> ResponseEntity<T> conditional(Optional<String> eTag, String ifNoneMatch, Supplier<T> body) {
+        if (eTag.isPresent() && matches(ifNoneMatch, eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(body.get());
+    }
+
+    // null — заголовка нет или "*", версию проверять не нужно
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith(WEAK_PREFIX) || value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag");
+        }
+        String version = value.substring(1, value.length() - 1).split("-", 2)[0];
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Unknown ETag: " + value);
+        }
+    }
+
+    public static void checkVersion(Long expectedVersion, Long actualVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(actualVersion)) {
+            throw new PreconditionFailedException("Resource was modified, current version " + actualVersion);
+        }
+    }
+}
@@ -2,4 +2,9 @@ package ru.practicum.util;
 
 public class HttpHeaders {
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    public static final String IF_MATCH = "If-Match";
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
 }
@@ -0,0 +1,67 @@
+package ru.practicum.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+@Component
+public class NdjsonStreamer {
+    private final ObjectMapper objectMapper;
+    private final CallableProcessingInterceptor timeoutInterceptor;
+
+    public NdjsonStreamer(ObjectMapper objectMapper,
+                          @Value("${shareit.ndjson.timeout:5m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        // Таймаут только для NDJSON-ответов: выставляется до старта асинхронной обработки этого запроса,
+        // остальные асинхронные запросы остаются с таймаутом контейнера
+        this.timeoutInterceptor = new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                ((AsyncWebRequest) request).setTimeout(timeout.toMillis());
+            }
+        };
+    }
+
+    // producer пишет элементы по одному внутри своей транзакции, пока открыт курсор.
+    // Он выполняется в потоке MVC, где нет закреплённой за запросом реплики и пользователя read-your-writes
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> producer) {
+        ServletRequestAttributes attributes =
+                (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        WebAsyncUtils.getAsyncManager(attributes.getRequest())
+                .registerCallableInterceptor(NdjsonStreamer.class, timeoutInterceptor);
+        StreamingResponseBody body = out -> {
+            boolean[] first = {true};
+            producer.accept(value -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(value));
+                    out.write('\n');
+                    if (first[0]) {
+                        out.flush();
+                        first[0] = false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThreadingModeReporter {
+    private final Environment environment;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Handling requests on virtual threads, JDBC pool size {}",
+                    environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10"));
+        } else {
+            log.info("Handling requests on platform threads");
+        }
+    }
+}
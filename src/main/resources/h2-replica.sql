@@ -0,0 +1,7 @@
+-- Реплика для профиля replicas: таблицы первичной базы H2 подключены только на чтение.
+-- Каждый запрос идёт в первичную базу, так что реплика никогда не отстаёт; схема FT и функции FT_* сюда не попадают
+CREATE LINKED TABLE IF NOT EXISTS users('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', 'sa', 'PUBLIC', 'USERS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS items('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', 'sa', 'PUBLIC', 'ITEMS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS bookings('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', 'sa', 'PUBLIC', 'BOOKINGS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS comments('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', 'sa', 'PUBLIC', 'COMMENTS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS item_summary('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', 'sa', 'PUBLIC', 'ITEM_SUMMARY') READONLY;
@@ -0,0 +1,28 @@
+-- Выполняется после schema.sql (spring.sql.init.schema-locations).
+-- Базы, созданные до перехода на последовательности: id больше не IDENTITY,
+-- а последовательность сдвигается за max(id) так, чтобы следующий пул из 50 id (next - 49 .. next) не пересёкся
+-- с существующими строками. Последовательность только догоняет таблицу и никогда не откатывается назад.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+
+ALTER SEQUENCE users_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id) + 51, 1), (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+  WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = 'USERS_SEQ')) FROM users);
+
+ALTER SEQUENCE items_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id) + 51, 1), (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+  WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = 'ITEMS_SEQ')) FROM items);
+
+ALTER SEQUENCE bookings_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id) + 51, 1), (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+  WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = 'BOOKINGS_SEQ')) FROM bookings);
+
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id) + 51, 1), (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+  WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = 'COMMENTS_SEQ')) FROM comments);
+
+-- Защита от пересекающихся бронирований WAITING/APPROVED одного предмета, аналог exclusion constraint PostgreSQL
+CREATE TRIGGER IF NOT EXISTS trg_bookings_item_overlap BEFORE INSERT, UPDATE ON bookings
+  FOR EACH ROW CALL 'ru.practicum.booking.H2BookingOverlapTrigger';
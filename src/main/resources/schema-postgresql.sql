@@ -0,0 +1,48 @@
+-- Выполняется после schema.sql (spring.sql.init.schema-locations), см. schema-h2.sql.
+-- setval(v) делает следующим значением v + 50, поэтому v = max(id) + 1; пустые таблицы не трогаются.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('users_seq', GREATEST(MAX(id) + 1,
+  (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM users_seq))) FROM users HAVING MAX(id) IS NOT NULL;
+
+SELECT setval('items_seq', GREATEST(MAX(id) + 1,
+  (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM items_seq))) FROM items HAVING MAX(id) IS NOT NULL;
+
+SELECT setval('bookings_seq', GREATEST(MAX(id) + 1,
+  (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM bookings_seq))) FROM bookings HAVING MAX(id) IS NOT NULL;
+
+SELECT setval('comments_seq', GREATEST(MAX(id) + 1,
+  (SELECT CASE WHEN is_called THEN last_value ELSE last_value - 50 END FROM comments_seq))) FROM comments HAVING MAX(id) IS NOT NULL;
+
+-- Защита от пересекающихся бронирований WAITING/APPROVED одного предмета.
+-- btree_gist нужен для item_id WITH = в индексе gist; если у пользователя приложения нет прав на CREATE EXTENSION,
+-- расширение заранее создаёт администратор, и строка ниже ничего не делает.
+-- При уже пересекающихся бронированиях ALTER TABLE падает и приложение не стартует. Найти их:
+--   SELECT a.item_id, a.id, b.id FROM bookings a
+--   JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id
+--     AND a.start_date < b.end_date AND b.start_date < a.end_date
+--   WHERE a.status IN ('WAITING', 'APPROVED') AND b.status IN ('WAITING', 'APPROVED');
+-- и перевести лишние в REJECTED или CANCELLED.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO 'BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_overlap'') THEN
+    ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_overlap
+      EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+      WHERE (status IN (''WAITING'', ''APPROVED''));
+  END IF;
+END';
+
+-- Полнотекстовый поиск (shareit.search.backend=postgresql): вектор по названию и описанию и индекс GIN по нему
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
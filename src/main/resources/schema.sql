@@ -1,36 +1,47 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_user PRIMARY KEY (id),
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(512) NOT NULL,
   available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL,
   request_id BIGINT,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_item PRIMARY KEY (id),
   CONSTRAINT fk_items_to_users FOREIGN KEY (owner_id) REFERENCES users (id)
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   item_id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
   status VARCHAR(20) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_booking PRIMARY KEY (id),
   CONSTRAINT fk_bookings_to_items FOREIGN KEY (item_id) REFERENCES items (id),
   CONSTRAINT fk_bookings_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT NOT NULL,
   text VARCHAR(1000) NOT NULL,
   item_id BIGINT NOT NULL,
   author_id BIGINT NOT NULL,
@@ -38,4 +49,34 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id),
   CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
   CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_summary (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  last_booking_start TIMESTAMP WITHOUT TIME ZONE,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+  comment_count BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_item_summary PRIMARY KEY (item_id),
+  CONSTRAINT fk_item_summary_to_items FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+-- Базы, созданные до появления optimistic locking
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_item_summary_next_start ON item_summary (next_booking_start);
@@ -0,0 +1,115 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * X-Next-Cursor выдаётся, только если за страницей есть ещё строки: страница ровно из size бронирований
+ * последней считается, а не заставляет клиента делать лишний пустой запрос.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BookingCursorPagingTest {
+    private static final int BOOKINGS = 3;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private Long ownerId;
+    private Long bookerId;
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        ownerId = createUser("owner-" + run);
+        bookerId = createUser("booker-" + run);
+        ItemDto item = new ItemDto();
+        item.setName("Drill");
+        item.setDescription("cursor paging");
+        item.setAvailable(true);
+        Long itemId = itemService.create(item, ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(bookingService.createBooking(bookerId, new BookingDto(null, start.plusDays(2L * i),
+                    start.plusDays(2L * i + 1), itemId, null, null)).getId());
+        }
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+        ResponseEntity<List<BookingResponseDto>> page = get("/bookings?size=" + BOOKINGS, bookerId);
+
+        assertThat(page.getBody()).hasSize(BOOKINGS);
+        assertThat(page.getHeaders().containsKey(HttpHeaders.NEXT_CURSOR_HEADER)).isFalse();
+        assertThat(get("/bookings/owner?size=" + BOOKINGS, ownerId).getHeaders()
+                .containsKey(HttpHeaders.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void cursorWalksAllPages() {
+        List<Long> seen = new ArrayList<>();
+        ResponseEntity<List<BookingResponseDto>> page = get("/bookings?size=2", bookerId);
+        seen.addAll(ids(page));
+        String cursor = page.getHeaders().getFirst(HttpHeaders.NEXT_CURSOR_HEADER);
+        assertThat(cursor).isNotNull();
+
+        page = get("/bookings?size=2&cursor=" + cursor, bookerId);
+        seen.addAll(ids(page));
+
+        assertThat(page.getBody()).hasSize(1);
+        assertThat(page.getHeaders().containsKey(HttpHeaders.NEXT_CURSOR_HEADER)).isFalse();
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(bookingIds);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> get(String path, Long userId) {
+        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
+        headers.set(HttpHeaders.USER_ID_HEADER, String.valueOf(userId));
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<BookingResponseDto>>() {
+                });
+    }
+
+    private static List<Long> ids(ResponseEntity<List<BookingResponseDto>> page) {
+        return page.getBody().stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+
+    private Long createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@cursor.test");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.dto.BookingDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Тысячи параллельных POST /bookings по нескольким предметам не должны оставить ни одного пересечения.
+ * Второй тест пишет в bookings напрямую, в обход сервиса, и проверяет защиту на уровне базы.
+ * Прочие нарушения целостности не выдаются за пересечение.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class BookingOverlapStressTest {
+    private static final int ITEMS = 4;
+    private static final int BOOKERS = 16;
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 2000;
+    private static final LocalDateTime HORIZON = LocalDateTime.of(2040, 1, 1, 0, 0);
+    private static final String OVERLAPS = "SELECT COUNT(*) FROM bookings a " +
+            "JOIN bookings b ON b.item_id = a.item_id AND b.id > a.id " +
+            "AND a.start_date < b.end_date AND b.start_date < a.end_date " +
+            "WHERE a.item_id IN (%s) AND a.status IN ('WAITING', 'APPROVED') AND b.status IN ('WAITING', 'APPROVED')";
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private final List<Long> itemIds = new ArrayList<>();
+    private final List<Long> bookerIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        long ownerId = create("/users", null, Map.of("name", "owner", "email", "owner-" + run + "@stress.test"));
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(create("/items", ownerId,
+                    Map.of("name", "Item " + i, "description", "stress", "available", true)));
+        }
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(create("/users", null,
+                    Map.of("name", "booker " + i, "email", "booker-" + i + "-" + run + "@stress.test")));
+        }
+    }
+
+    @Test
+    void concurrentBookingRequestsNeverOverlap() throws Exception {
+        Map<HttpStatus, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                requests.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    LocalDateTime start = HORIZON.plusHours(random.nextInt(24 * 60));
+                    Map<String, Object> booking = Map.of(
+                            "itemId", itemIds.get(random.nextInt(ITEMS)),
+                            "start", start.toString(),
+                            "end", start.plusHours(1 + random.nextInt(72)).toString());
+                    ResponseEntity<String> response = rest.postForEntity("/bookings",
+                            request(bookerIds.get(random.nextInt(BOOKERS)), booking), String.class);
+                    statuses.computeIfAbsent(HttpStatus.valueOf(response.getStatusCode().value()),
+                            status -> new AtomicInteger()).incrementAndGet();
+                }));
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statuses).containsOnlyKeys(HttpStatus.OK, HttpStatus.CONFLICT);
+        assertThat(statuses.get(HttpStatus.OK).get()).isPositive();
+        assertThat(statuses.get(HttpStatus.CONFLICT).get()).isPositive();
+        assertThat(overlaps()).isZero();
+    }
+
+    @Test
+    void databaseRejectsOverlapsWrittenPastTheService() throws Exception {
+        AtomicLong ids = new AtomicLong(1_000_000);
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> inserts = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                inserts.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    LocalDateTime start = HORIZON.plusHours(random.nextInt(24 * 30));
+                    try {
+                        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, " +
+                                        "status) VALUES (?, ?, ?, ?, ?, 'WAITING')",
+                                ids.incrementAndGet(), Timestamp.valueOf(start),
+                                Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                                itemIds.get(random.nextInt(ITEMS)), bookerIds.get(random.nextInt(BOOKERS)));
+                        inserted.incrementAndGet();
+                    } catch (DataIntegrityViolationException e) {
+                        rejected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> insert : inserts) {
+                insert.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(inserted.get()).isPositive();
+        assertThat(rejected.get()).isPositive();
+        assertThat(overlaps()).isZero();
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotConflicts() {
+        LocalDateTime start = HORIZON.minusDays(30);
+        BookingDto booking = new BookingDto(null, start, null, itemIds.get(0), null, null);
+
+        assertThatThrownBy(() -> bookingService.createBooking(bookerIds.get(0), booking))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private long overlaps() {
+        String items = String.join(",", itemIds.stream().map(String::valueOf).toList());
+        return jdbcTemplate.queryForObject(OVERLAPS.formatted(items), Long.class);
+    }
+
+    private long create(String path, Long userId, Map<String, Object> body) {
+        ResponseEntity<Map> response = rest.postForEntity(path, request(userId, body), Map.class);
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private static HttpEntity<Map<String, Object>> request(Long userId, Map<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set(ru.practicum.util.HttpHeaders.USER_ID_HEADER, String.valueOf(userId));
+        }
+        return new HttpEntity<>(body, headers);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.booking.dto.BookingResponseDto;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.sql.QueryStats;
+import ru.practicum.sql.SqlStatementCounter;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Страница бронирований любого размера отдаётся проверкой пользователя и одним запросом с JOIN FETCH
+ * предмета и арендатора, без отдельных select на каждое бронирование. Кэш второго уровня перед каждым
+ * замером очищается, иначе ленивые загрузки из него спрятали бы N+1.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingQueryStatementCountTest {
+    private static final int ITEMS = 5;
+    private static final int BOOKINGS_PER_ITEM = 6;
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long bookerId;
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        ownerId = createUser("owner-" + run);
+        bookerId = createUser("booker-" + run);
+        // Каждому предмету свой владелец: ленивые ассоциации разных предметов не схлопнутся в одну
+        LocalDateTime start = LocalDateTime.now().minusDays(ITEMS * BOOKINGS_PER_ITEM);
+        for (int i = 0; i < ITEMS; i++) {
+            Long itemOwnerId = i == 0 ? ownerId : createUser("owner-" + i + "-" + run);
+            ItemDto item = new ItemDto();
+            item.setName("Item " + i);
+            item.setDescription("statement count");
+            item.setAvailable(true);
+            Long itemId = itemService.create(item, itemOwnerId).getId();
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                start = start.plusDays(2);
+                bookingIds.add(bookingService.createBooking(bookerId, new BookingDto(null, start,
+                        start.plusDays(1), itemId, null, null)).getId());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 30})
+    void bookerPageIsUserCheckPlusOneFetchForAnySize(int size) {
+        for (String state : STATES) {
+            SqlStatementCounter.Captured<List<BookingResponseDto>> page =
+                    capture(() -> bookingService.getUserBookings(bookerId, state, 0, size));
+
+            assertThat(page.stats().getTotal()).as("statements for state %s, size %d", state, size).isEqualTo(2);
+        }
+        assertThat(capture(() -> bookingService.getUserBookings(bookerId, "ALL", 0, size)).result())
+                .hasSize(Math.min(size, ITEMS * BOOKINGS_PER_ITEM))
+                .allSatisfy(booking -> assertThat(booking.getItem().getName()).isNotNull());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 30})
+    void ownerPageIsUserCheckPlusOneFetchForAnySize(int size) {
+        for (String state : STATES) {
+            QueryStats stats = capture(() -> bookingService.getOwnerBookings(ownerId, state, 0, size)).stats();
+
+            assertThat(stats.getTotal()).as("statements for state %s, size %d", state, size).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void keysetPageIsUserCheckPlusOneFetch() {
+        String cursor = new BookingCursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE).encode();
+
+        QueryStats stats = capture(() -> bookingService.getUserBookingsAfter(bookerId, "ALL", cursor, 30))
+                .stats();
+
+        assertThat(stats.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void singleBookingIsRoleCheckPlusOneFetch() {
+        QueryStats stats = capture(() -> bookingService.getBookingById(bookerId, bookingIds.get(0))).stats();
+
+        assertThat(stats.getTotal()).isEqualTo(2);
+    }
+
+    private <T> SqlStatementCounter.Captured<T> capture(Supplier<T> action) {
+        entityManagerFactory.getCache().evictAll();
+        return counter.capture(action);
+    }
+
+    private Long createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@statements.test");
+        return userService.save(user).getId();
+    }
+}
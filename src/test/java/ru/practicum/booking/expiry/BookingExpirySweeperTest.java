@@ -0,0 +1,108 @@
+package ru.practicum.booking.expiry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Просроченные заявки переводятся в EXPIRED тем же запросом с SKIP LOCKED, что и на PostgreSQL;
+ * строку, заблокированную другой транзакцией, проход пропускает, а не ждёт.
+ */
+@SpringBootTest(properties = "shareit.booking-expiry.enabled=true")
+@ActiveProfiles("test")
+class BookingExpirySweeperTest {
+
+    @Autowired
+    private BookingExpirySweeper sweeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void lockedBookingIsSkipped() throws Exception {
+        String run = Long.toString(System.nanoTime());
+        Long ownerId = createUser("owner-" + run);
+        Long bookerId = createUser("booker-" + run);
+        ItemDto item = new ItemDto();
+        item.setName("Drill");
+        item.setDescription("expiry");
+        item.setAvailable(true);
+        Long itemId = itemService.create(item, ownerId).getId();
+        LocalDateTime now = LocalDateTime.now();
+        Long free = book(bookerId, itemId, now.minusDays(5));
+        Long locked = book(bookerId, itemId, now.minusDays(3));
+
+        CountDownLatch lockTaken = new CountDownLatch(1);
+        CountDownLatch sweepDone = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    jdbcTemplate.queryForObject("SELECT id FROM bookings WHERE id = ? FOR UPDATE", Long.class, locked);
+                    lockTaken.countDown();
+                    await(sweepDone);
+                }));
+        assertThat(lockTaken.await(10, TimeUnit.SECONDS)).isTrue();
+        try {
+            sweeper.sweep();
+        } finally {
+            sweepDone.countDown();
+        }
+        holder.get(10, TimeUnit.SECONDS);
+
+        assertThat(status(free)).isEqualTo("EXPIRED");
+        assertThat(status(locked)).isEqualTo("WAITING");
+        sweeper.sweep();
+        assertThat(status(locked)).isEqualTo("EXPIRED");
+    }
+
+    private Long book(Long bookerId, Long itemId, LocalDateTime start) {
+        return bookingService.createBooking(bookerId,
+                new BookingDto(null, start, start.plusDays(1), itemId, null, null)).getId();
+    }
+
+    private String status(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+
+    private Long createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@expiry.test");
+        return userService.save(user).getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
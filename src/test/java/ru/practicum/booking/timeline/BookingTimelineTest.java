@@ -0,0 +1,54 @@
+package ru.practicum.booking.timeline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Свободные окна на временной шкале предмета, в том числе при вложенных и пересекающихся интервалах,
+ * оставшихся от бронирований до появления защиты от пересечений.
+ */
+class BookingTimelineTest {
+
+    @Test
+    void freeSlotsBetweenDisjointIntervals() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(1, 10, 20);
+        timeline.add(2, 30, 40);
+
+        assertThat(timeline.freeSlots(0, 50)).containsExactly(0, 10, 20, 30, 40, 50);
+        assertThat(timeline.freeSlots(15, 35)).containsExactly(20, 30);
+    }
+
+    @Test
+    void nestedIntervalCoversQueryStart() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(1, 0, 100);
+        timeline.add(2, 10, 20);
+
+        assertThat(timeline.freeSlots(50, 150)).containsExactly(100, 150);
+        assertThat(timeline.freeSlots(50, 90)).isEmpty();
+    }
+
+    @Test
+    void longIntervalBehindSeveralShortOnes() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(1, 0, 100);
+        timeline.add(2, 10, 20);
+        timeline.add(3, 30, 40);
+        timeline.add(4, 120, 130);
+
+        assertThat(timeline.freeSlots(45, 200)).containsExactly(100, 120, 130, 200);
+    }
+
+    @Test
+    void removingCoveringIntervalFreesItsRange() {
+        BookingTimeline timeline = new BookingTimeline();
+        timeline.add(1, 0, 100);
+        timeline.add(2, 10, 20);
+
+        timeline.remove(1);
+
+        assertThat(timeline.freeSlots(0, 50)).containsExactly(0, 10, 20, 50);
+    }
+}
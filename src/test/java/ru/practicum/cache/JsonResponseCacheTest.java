@@ -0,0 +1,46 @@
+package ru.practicum.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кэш готового JSON: попадание отдаётся без загрузчика, q-значение gzip разбирается как число.
+ */
+class JsonResponseCacheTest {
+
+    @Test
+    void hitIsWrittenWithoutLoader() throws IOException {
+        JsonResponseCache cache = new JsonResponseCache(
+                new OffHeapSlabCache("test", 64 * 1024, 4096, Duration.ofMinutes(1)), new ObjectMapper(), false);
+        cache.get(1, "\"1\"", false, () -> Map.of("name", "drill"));
+
+        CachedJson hit = cache.get(1, "\"1\"", false, () -> {
+            throw new AssertionError("Loader must not run on a hit");
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        hit.writeTo(out);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"drill\"}");
+    }
+
+    @Test
+    void gzipQualityIsParsedAsNumber() {
+        assertThat(JsonResponseCache.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(JsonResponseCache.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(JsonResponseCache.acceptsGzip("gzip; q=0.001")).isTrue();
+        assertThat(JsonResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(JsonResponseCache.acceptsGzip("gzip;q=0.0")).isFalse();
+        assertThat(JsonResponseCache.acceptsGzip("gzip;q=0.000")).isFalse();
+        assertThat(JsonResponseCache.acceptsGzip("gzip;q=abc")).isFalse();
+        assertThat(JsonResponseCache.acceptsGzip("br")).isFalse();
+        assertThat(JsonResponseCache.acceptsGzip(null)).isFalse();
+    }
+}
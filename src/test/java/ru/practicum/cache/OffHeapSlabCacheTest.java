@@ -0,0 +1,138 @@
+package ru.practicum.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Хранилище вне кучи: страницы переходят между классами размера, записи старше ttl не отдаются,
+ * закреплённая запись читается целиком даже после вытеснения.
+ */
+class OffHeapSlabCacheTest {
+    private static final int PAGE_SIZE = 4096;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    // Каждое обращение к часам сдвигает их на наносекунду, чтобы порядок обращений был однозначным
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void pagesMoveToTheSizeClassInDemand() {
+        OffHeapSlabCache cache = cache(2);
+        // Обе страницы уходят под мелкие записи
+        for (long key = 0; key < 2 * PAGE_SIZE / 256; key++) {
+            assertThat(cache.put(key, "t", new byte[200])).isTrue();
+        }
+
+        assertThat(cache.put(1000, "t", new byte[400])).isTrue();
+        assertThat(cache.put(1001, "t", new byte[500])).isTrue();
+
+        assertThat(contains(cache, 1000)).isTrue();
+        assertThat(contains(cache, 1001)).isTrue();
+        // Страница отнята у мелкого класса целиком, другая осталась ему
+        assertThat(cache.stats().getSize()).isEqualTo(2 + PAGE_SIZE / 256);
+    }
+
+    @Test
+    void coldestPageIsReassignedFirst() {
+        OffHeapSlabCache cache = cache(2);
+        int perPage = PAGE_SIZE / 256;
+        for (long key = 0; key < 2 * perPage; key++) {
+            cache.put(key, "t", new byte[200]);
+        }
+        // Первая страница снова в ходу, вторая давно не читалась
+        try (OffHeapSlabCache.Pin pin = cache.pin(0, "t").orElseThrow()) {
+            assertThat(pin.buffer().remaining()).isEqualTo(200);
+        }
+
+        cache.put(1000, "t", new byte[400]);
+
+        assertThat(contains(cache, 0)).isTrue();
+        assertThat(contains(cache, perPage)).isFalse();
+    }
+
+    @Test
+    void recentlyReadEntryGetsASecondChance() {
+        OffHeapSlabCache cache = cache(1);
+        int perPage = PAGE_SIZE / 256;
+        for (long key = 0; key < perPage; key++) {
+            cache.put(key, "t", new byte[200]);
+        }
+        assertThat(contains(cache, 0)).isTrue();
+
+        cache.put(1000, "t", new byte[200]);
+
+        assertThat(contains(cache, 0)).isTrue();
+        assertThat(contains(cache, 1)).isFalse();
+    }
+
+    @Test
+    void pinnedPageIsNotReassigned() {
+        OffHeapSlabCache cache = cache(1);
+        for (long key = 0; key < PAGE_SIZE / 256; key++) {
+            cache.put(key, "t", new byte[200]);
+        }
+
+        try (OffHeapSlabCache.Pin pin = cache.pin(0, "t").orElseThrow()) {
+            assertThat(cache.put(1000, "t", new byte[400])).isFalse();
+            assertThat(pin.buffer().remaining()).isEqualTo(200);
+        }
+        assertThat(cache.put(1000, "t", new byte[400])).isTrue();
+    }
+
+    @Test
+    void evictedEntryStaysReadableWhilePinned() {
+        OffHeapSlabCache cache = cache(1);
+        cache.put(1, "t", new byte[]{7, 7, 7});
+
+        try (OffHeapSlabCache.Pin pin = cache.pin(1, "t").orElseThrow()) {
+            cache.remove(1);
+            for (long key = 2; key < 2 + PAGE_SIZE / 256; key++) {
+                cache.put(key, "t", new byte[]{9});
+            }
+            assertThat(pin.buffer().get(0)).isEqualTo((byte) 7);
+        }
+        assertThat(contains(cache, 1)).isFalse();
+        assertThat(cache.put(1, "t", new byte[]{8})).isTrue();
+    }
+
+    @Test
+    void expiredEntryIsAMiss() {
+        OffHeapSlabCache cache = cache(1);
+        cache.put(1, "t", new byte[]{42});
+        assertThat(contains(cache, 1)).isTrue();
+
+        now.addAndGet(TTL.toNanos());
+
+        assertThat(cache.pin(1, "t")).isEmpty();
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+    @Test
+    void otherTagIsAMiss() {
+        OffHeapSlabCache cache = cache(1);
+        cache.put(1, "a", new byte[]{1, 2, 3});
+
+        Optional<OffHeapSlabCache.Pin> pin = cache.pin(1, "b");
+
+        assertThat(pin).isEmpty();
+        try (OffHeapSlabCache.Pin pinned = cache.pin(1, "a").orElseThrow()) {
+            ByteBuffer buffer = pinned.buffer();
+            assertThat(buffer.get(2)).isEqualTo((byte) 3);
+        }
+    }
+
+    private OffHeapSlabCache cache(int pages) {
+        return new OffHeapSlabCache("test", (long) pages * PAGE_SIZE, PAGE_SIZE, TTL, now::incrementAndGet);
+    }
+
+    private static boolean contains(OffHeapSlabCache cache, long key) {
+        Optional<OffHeapSlabCache.Pin> pin = cache.pin(key, "t");
+        pin.ifPresent(OffHeapSlabCache.Pin::close);
+        return pin.isPresent();
+    }
+}
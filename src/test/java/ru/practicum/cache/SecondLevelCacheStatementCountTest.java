@@ -0,0 +1,145 @@
+package ru.practicum.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.Item;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.CommentDto;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.sql.SqlStatementCounter;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.user.dto.UserResponseDto;
+import ru.practicum.user.dto.UserUpdateDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кэш второго уровня на H2: повторное чтение пользователя и предмета, а также списка предметов владельца
+ * обходится меньшим числом запросов, чем чтение с пустым кэшем, а изменение сразу видно следующему чтению.
+ * Комментарии предмета читаются через закэшированную коллекцию Item.comments.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheStatementCountTest {
+    private static final int OWNER_ITEMS = 5;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long otherUserId;
+    private Long itemId;
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        ownerId = createUser("owner-" + run);
+        otherUserId = createUser("other-" + run);
+        for (int i = 0; i < OWNER_ITEMS; i++) {
+            ItemDto item = new ItemDto();
+            item.setName("Item " + i);
+            item.setDescription("second level cache");
+            item.setAvailable(true);
+            itemId = itemService.create(item, ownerId).getId();
+        }
+    }
+
+    @Test
+    void cachedUserIsReadWithoutStatements() {
+        entityManagerFactory.getCache().evictAll();
+
+        int cold = counter.capture(() -> userService.getById(ownerId)).stats().getTotal();
+        int warm = counter.capture(() -> userService.getById(ownerId)).stats().getTotal();
+
+        assertThat(cold).isEqualTo(1);
+        assertThat(warm).isZero();
+    }
+
+    @Test
+    void cachedItemNeedsFewerStatements() {
+        entityManagerFactory.getCache().evictAll();
+
+        int cold = counter.capture(() -> itemService.getById(itemId, otherUserId)).stats().getTotal();
+        int warm = counter.capture(() -> itemService.getById(itemId, otherUserId)).stats().getTotal();
+
+        assertThat(warm).isLessThan(cold);
+    }
+
+    @Test
+    void ownerItemListComesFromQueryCache() {
+        entityManagerFactory.getCache().evictAll();
+
+        int cold = counter.capture(() -> itemService.getAllByOwner(ownerId)).stats().getTotal();
+        SqlStatementCounter.Captured<List<ItemDto>> warm = counter.capture(() -> itemService.getAllByOwner(ownerId));
+
+        assertThat(warm.stats().getTotal()).isLessThan(cold);
+        assertThat(warm.result()).hasSize(OWNER_ITEMS);
+    }
+
+    @Test
+    void updateIsVisibleToNextCachedRead() {
+        userService.getById(otherUserId);
+        UserUpdateDto update = new UserUpdateDto();
+        update.setName("renamed");
+
+        userService.update(otherUserId, update, null);
+        SqlStatementCounter.Captured<UserResponseDto> read = counter.capture(() -> userService.getById(otherUserId));
+
+        assertThat(read.result().getName()).isEqualTo("renamed");
+        assertThat(read.stats().getTotal()).isZero();
+    }
+
+    @Test
+    void itemCommentsComeFromCollectionCache() {
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        Long bookingId = bookingService.createBooking(otherUserId, new BookingDto(null, start, start.plusDays(1),
+                itemId, null, null)).getId();
+        bookingService.approveBooking(ownerId, bookingId, true, null);
+        itemService.addComment(otherUserId, itemId, new CommentDto(null, "first", null, null));
+        entityManagerFactory.getCache().evictAll();
+        CollectionStatistics comments = entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getCollectionStatistics(Item.class.getName() + ".comments");
+
+        itemService.getById(itemId, otherUserId);
+        long hits = comments.getCacheHitCount();
+        ItemDto warm = itemService.getById(itemId, otherUserId);
+
+        assertThat(comments.getCacheHitCount()).isEqualTo(hits + 1);
+        assertThat(warm.getComments()).extracting(CommentDto::getText).containsExactly("first");
+
+        itemService.addComment(otherUserId, itemId, new CommentDto(null, "second", null, null));
+        assertThat(itemService.getById(itemId, otherUserId).getComments()).extracting(CommentDto::getText)
+                .containsExactly("first", "second");
+    }
+
+    private Long createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@cache.test");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Маршрутизация на базах H2 в памяти: пишущие транзакции идут на первичную, readOnly — на реплики по весу,
+ * внутри запроса — на одну реплику, а пользователь после записи читает с первичной.
+ */
+class ReplicaRoutingDataSourceTest {
+    private static final Long USER = 1L;
+    private static final int READS = 50;
+
+    private final String run = Long.toString(System.nanoTime());
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(true, Duration.ofMinutes(1));
+
+    @AfterEach
+    void clearRequest() {
+        ReplicaRoutingDataSource.endRequest();
+        tracker.clearCurrentUser();
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadsToWeightedReplicas() {
+        Routing routing = routing(1, 1);
+
+        assertThat(write(routing)).isEqualTo(database("primary"));
+        Set<String> readFrom = new HashSet<>();
+        IntStream.range(0, READS).forEach(i -> readFrom.add(read(routing)));
+        assertThat(readFrom).containsExactlyInAnyOrder(database("replica-a"), database("replica-b"));
+    }
+
+    @Test
+    void zeroWeightReplicaIsNotUsed() {
+        Routing routing = routing(0, 1);
+
+        IntStream.range(0, READS).forEach(i -> assertThat(read(routing)).isEqualTo(database("replica-b")));
+    }
+
+    @Test
+    void requestStaysOnOneReplica() {
+        Routing routing = routing(1, 1);
+        ReplicaRoutingDataSource.beginRequest();
+
+        String first = read(routing);
+
+        IntStream.range(0, READS).forEach(i -> assertThat(read(routing)).isEqualTo(first));
+    }
+
+    @Test
+    void writerReadsFromPrimary() {
+        Routing routing = routing(1, 1);
+        tracker.setCurrentUser(USER);
+        write(routing);
+
+        assertThat(read(routing)).isEqualTo(database("primary"));
+
+        tracker.setCurrentUser(USER + 1);
+        assertThat(read(routing)).isNotEqualTo(database("primary"));
+    }
+
+    @Test
+    void writerReadsFromPrimaryEvenWhenRequestIsPinned() {
+        Routing routing = routing(1, 1);
+        tracker.setCurrentUser(USER);
+        ReplicaRoutingDataSource.beginRequest();
+        assertThat(read(routing)).isNotEqualTo(database("primary"));
+
+        write(routing);
+
+        assertThat(read(routing)).isEqualTo(database("primary"));
+    }
+
+    @Test
+    void weightsAreValidated() {
+        assertThatThrownBy(() -> routing(0, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("positive weight");
+        assertThatThrownBy(() -> routing(-1, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("negative weight");
+    }
+
+    private Routing routing(int weightA, int weightB) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2("primary"), List.of(
+                new ReplicaRoutingDataSource.WeightedDataSource("replica-a", h2("replica-a"), weightA),
+                new ReplicaRoutingDataSource.WeightedDataSource("replica-b", h2("replica-b"), weightB)),
+                tracker, new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        return new Routing(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+    }
+
+    private String read(Routing routing) {
+        TransactionTemplate transaction = new TransactionTemplate(routing.transactionManager());
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> currentDatabase(routing));
+    }
+
+    private String write(Routing routing) {
+        return new TransactionTemplate(routing.transactionManager()).execute(status -> currentDatabase(routing));
+    }
+
+    private static String currentDatabase(Routing routing) {
+        return routing.jdbc().queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + database(name) + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private String database(String name) {
+        return (name + "-" + run).toUpperCase();
+    }
+
+    private record Routing(JdbcTemplate jdbc, DataSourceTransactionManager transactionManager) {
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.dto.CommentDto;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+import ru.practicum.user.dto.UserUpdateDto;
+import ru.practicum.util.HttpHeaders;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Вид предмета для не-владельца отдаётся из общего кэша JSON. Смена имени автора комментария
+ * меняет ETag, и следующий ответ собирается заново.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ItemJsonCacheTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void renamedCommentAuthorIsNotServedStale() {
+        String run = Long.toString(System.nanoTime());
+        Long ownerId = createUser("owner-" + run);
+        Long authorId = createUser("author-" + run);
+        Long viewerId = createUser("viewer-" + run);
+        ItemDto item = new ItemDto();
+        item.setName("Drill");
+        item.setDescription("json cache");
+        item.setAvailable(true);
+        Long itemId = itemService.create(item, ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        Long bookingId = bookingService.createBooking(authorId, new BookingDto(null, start, start.plusDays(1),
+                itemId, null, null)).getId();
+        bookingService.approveBooking(ownerId, bookingId, true, null);
+        itemService.addComment(authorId, itemId, new CommentDto(null, "good", null, null));
+
+        ResponseEntity<ItemDto> before = get(itemId, viewerId);
+        // Второй запрос с тем же ETag отдаётся из кэша
+        assertThat(get(itemId, viewerId).getHeaders().getETag()).isEqualTo(before.getHeaders().getETag());
+        UserUpdateDto rename = new UserUpdateDto();
+        rename.setName("renamed-" + run);
+        userService.update(authorId, rename, null);
+        ResponseEntity<ItemDto> after = get(itemId, viewerId);
+
+        assertThat(before.getBody().getComments()).extracting(CommentDto::getAuthorName)
+                .containsExactly("author-" + run);
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+        assertThat(after.getBody().getComments()).extracting(CommentDto::getAuthorName)
+                .containsExactly("renamed-" + run);
+    }
+
+    private ResponseEntity<ItemDto> get(Long itemId, Long userId) {
+        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
+        headers.set(HttpHeaders.USER_ID_HEADER, String.valueOf(userId));
+        return rest.exchange("/items/" + itemId, HttpMethod.GET, new HttpEntity<>(headers), ItemDto.class);
+    }
+
+    private Long createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@json-cache.test");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.booking.BookingService;
+import ru.practicum.booking.dto.BookingDto;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.sql.QueryBudget;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бюджеты SQL для чтения предметов при пустом кэше второго уровня: число запросов не растёт
+ * с числом предметов и бронирований, ни одна форма запроса не повторяется.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemQueryBudgetTest {
+    private static final int ITEMS = 8;
+    private static final int BOOKINGS_PER_ITEM = 3;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long bookerId;
+    private String word;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        ownerId = createUser("owner-" + run);
+        bookerId = createUser("booker-" + run);
+        word = "budget" + run;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = new ItemDto();
+            item.setName("Item " + i + " " + word);
+            item.setDescription("query budget");
+            item.setAvailable(true);
+            Long itemId = itemService.create(item, ownerId).getId();
+            itemIds.add(itemId);
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                start = start.plusDays(2);
+                Long bookingId = bookingService.createBooking(bookerId, new BookingDto(null, start,
+                        start.plusDays(1), itemId, null, null)).getId();
+                bookingService.approveBooking(ownerId, bookingId, true, null);
+            }
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @QueryBudget(value = 3, maxRepeats = 1)
+    void ownerItemList() {
+        assertThat(itemService.getAllByOwner(ownerId)).hasSize(ITEMS);
+    }
+
+    @Test
+    @QueryBudget(value = 3, maxRepeats = 1)
+    void itemForOwner() {
+        assertThat(itemService.getById(itemIds.get(0), ownerId).getNextBooking()).isNotNull();
+    }
+
+    @Test
+    @QueryBudget(value = 2, maxRepeats = 1)
+    void itemForOtherUser() {
+        assertThat(itemService.getById(itemIds.get(0), bookerId).getNextBooking()).isNull();
+    }
+
+    @Test
+    @QueryBudget(value = 1, maxRepeats = 1)
+    void search() {
+        assertThat(itemService.search(word, 0, null)).hasSize(ITEMS);
+    }
+
+    private Long createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@budget.test");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Поиск через полнотекстовый индекс H2: нативный запрос отображается на Item целиком, включая version,
+ * и списком, и потоком для NDJSON; совпадения в названии ранжируются выше совпадений в описании.
+ */
+@SpringBootTest(properties = "shareit.search.backend=h2")
+@ActiveProfiles("test")
+class H2FullTextItemSearchProviderTest {
+    private static final int ITEMS = 4;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private String word;
+    private Long ownerId;
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        word = "fulltext" + run;
+        UserDto owner = new UserDto();
+        owner.setName("owner");
+        owner.setEmail("owner-" + run + "@search.test");
+        ownerId = userService.save(owner).getId();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = new ItemDto();
+            item.setName("Item " + i);
+            item.setDescription(word + " item");
+            item.setAvailable(i != 0);
+            itemService.create(item, ownerId);
+        }
+    }
+
+    private Long create(String name, String description) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+
+    @Test
+    void searchReturnsAvailableMatches() {
+        List<ItemDto> found = itemService.search(word, 0, null);
+
+        assertThat(found).hasSize(ITEMS - 1)
+                .allSatisfy(item -> assertThat(item.getAvailable()).isTrue());
+    }
+
+    @Test
+    void nameMatchesRankFirst() {
+        Long inName = create(word + " drill", "cordless");
+        Long inBoth = create(word + " saw", word + " blade");
+
+        List<ItemDto> found = itemService.search(word, 0, null);
+
+        assertThat(found).extracting(ItemDto::getId).startsWith(inBoth, inName);
+    }
+
+    @Test
+    void streamMatchesListPage() {
+        List<ItemDto> streamed = new ArrayList<>();
+
+        itemService.streamSearch(word, 1, 2, streamed::add);
+
+        assertThat(streamed).extracting(ItemDto::getId)
+                .containsExactlyElementsOf(itemService.search(word, 1, 2).stream().map(ItemDto::getId).toList());
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Индекс в памяти: порядок по BM25 с разбором ничьих по id, кандидаты на совпадение подстроки
+ * и обновление постингов при замене и удалении документа.
+ */
+class InMemoryItemIndexTest {
+
+    @Test
+    void frequentAndShortMatchesRankFirst() {
+        InMemoryItemIndex index = new InMemoryItemIndex();
+        index.put(1L, "Saw", "cuts wood, comes with a spare blade and a drill adapter", true);
+        index.put(2L, "Drill", "cordless drill", true);
+        index.put(3L, "Hammer", "heavy", true);
+        index.put(4L, "Drill", "battery", true);
+        index.put(5L, "Drill", "battery", true);
+
+        assertThat(index.search("DRILL")).containsExactly(2L, 4L, 5L, 1L);
+    }
+
+    @Test
+    void substringInsideTokenIsACandidate() {
+        InMemoryItemIndex index = new InMemoryItemIndex();
+        index.put(1L, "Drill", "cordless", true);
+        index.put(2L, "Saw", "hand", true);
+
+        assertThat(index.search("ril")).containsExactly(1L);
+        assertThat(index.search("ll")).containsExactly(1L);
+        assertThat(index.search("rdl")).containsExactly(1L);
+        assertThat(index.search("xyz")).isEmpty();
+    }
+
+    @Test
+    void queryAcrossTokensNeedsEveryToken() {
+        InMemoryItemIndex index = new InMemoryItemIndex();
+        index.put(1L, "Drill bit", "steel", true);
+        index.put(2L, "Drill", "wood", true);
+
+        assertThat(index.search("ill bi")).containsExactly(1L);
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsLeaveNoPostings() {
+        InMemoryItemIndex index = new InMemoryItemIndex();
+        index.put(1L, "Drill", "cordless", true);
+        index.put(2L, "Saw", "hand", true);
+
+        index.put(1L, "Hammer", "heavy", true);
+        index.put(2L, "Saw", "hand", false);
+
+        assertThat(index.search("drill")).isEmpty();
+        assertThat(index.search("hammer")).containsExactly(1L);
+        assertThat(index.search("saw")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1L);
+
+        assertThat(index.search("hammer")).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.item.search;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Поиск через индекс в памяти: подстрока внутри слова находится, ложные кандидаты индекса отсеиваются
+ * до разбиения на страницы, а правки предмета попадают в индекс только после коммита.
+ */
+@SpringBootTest(properties = "shareit.search.backend=memory")
+@ActiveProfiles("test")
+class InMemoryItemSearchProviderTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String word;
+    private Long ownerId;
+
+    @BeforeEach
+    void seed() {
+        // Регионы Ehcache общие для всех контекстов тестов, а база у контекста своя, и id в ней начинаются с 1
+        entityManagerFactory.getCache().evictAll();
+        String run = Long.toString(System.nanoTime());
+        word = "memory" + run;
+        UserDto owner = new UserDto();
+        owner.setName("owner");
+        owner.setEmail("owner-" + run + "@memory-search.test");
+        ownerId = userService.save(owner).getId();
+    }
+
+    @Test
+    void substringInsideWordIsFound() {
+        Long id = create("Drill " + word, "cordless");
+
+        assertThat(search(word.substring(2, 10))).contains(id);
+        assertThat(search(word.toUpperCase())).containsExactly(id);
+    }
+
+    @Test
+    void falseCandidatesAreDroppedBeforePaging() {
+        create(word + "b " + word + "a", "reversed");
+        Long exact = create(word + "a " + word + "b", "exact");
+        String query = word + "a " + word + "b";
+
+        assertThat(search(query)).containsExactly(exact);
+        assertThat(itemService.search(query, 0, 1)).extracting(ItemDto::getId).containsExactly(exact);
+        List<ItemDto> streamed = new ArrayList<>();
+        itemService.streamSearch(query, 0, 1, streamed::add);
+        assertThat(streamed).extracting(ItemDto::getId).containsExactly(exact);
+    }
+
+    @Test
+    void committedUpdatesReachTheIndex() {
+        Long id = create("Drill " + word, "cordless");
+
+        itemService.update(rename(id, "Hammer " + word + "x"), ownerId, null);
+
+        assertThat(search("Drill " + word)).isEmpty();
+        assertThat(search("Hammer " + word + "x")).containsExactly(id);
+
+        ItemDto unavailable = new ItemDto();
+        unavailable.setId(id);
+        unavailable.setAvailable(false);
+        itemService.update(unavailable, ownerId, null);
+
+        assertThat(search(word)).isEmpty();
+    }
+
+    @Test
+    void rolledBackUpdateLeavesIndexUnchanged() {
+        Long id = create("Drill " + word, "cordless");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.update(rename(id, "Hammer " + word), ownerId, null);
+            status.setRollbackOnly();
+        });
+
+        assertThat(search("Drill " + word)).containsExactly(id);
+    }
+
+    private ItemDto rename(Long id, String name) {
+        ItemDto update = new ItemDto();
+        update.setId(id);
+        update.setName(name);
+        return update;
+    }
+
+    private List<Long> search(String text) {
+        return itemService.search(text, 0, null).stream()
+                .map(ItemDto::getId)
+                .toList();
+    }
+
+    private Long create(String name, String description) {
+        ItemDto item = new ItemDto();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return itemService.create(item, ownerId).getId();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.item.summary;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Старые бронирования предмета с одинаковым началом: сводка выбирает последнее и следующее по id,
+ * одинаково для списка владельца и для одного предмета, независимо от порядка строк в базе.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemSummaryTieBreakTest {
+    // Вне диапазона, который Hibernate выдаёт из bookings_seq
+    private static final AtomicLong NEXT_ID = new AtomicLong(1_000_000);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long itemId;
+    private Long lastId;
+    private Long nextId;
+
+    @BeforeEach
+    void seed() {
+        String run = Long.toString(System.nanoTime());
+        ownerId = createUser("owner-" + run);
+        Long bookerId = createUser("booker-" + run);
+        ItemDto item = new ItemDto();
+        item.setName("Drill");
+        item.setDescription("tie break");
+        item.setAvailable(true);
+        itemId = itemService.create(item, ownerId).getId();
+
+        // Нулевая длительность проходит проверку пересечений, как и бронирования, созданные до неё
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        long id = NEXT_ID.getAndAdd(4);
+        insertApproved(id + 1, bookerId, now.minusDays(1));
+        insertApproved(id, bookerId, now.minusDays(1));
+        insertApproved(id + 3, bookerId, now.plusDays(1));
+        insertApproved(id + 2, bookerId, now.plusDays(1));
+        // Сводка пересчитывается из бронирований, как при заполнении недостающих сводок
+        jdbcTemplate.update("DELETE FROM item_summary WHERE item_id = ?", itemId);
+        entityManagerFactory.getCache().evictAll();
+        lastId = id + 1;
+        nextId = id + 2;
+    }
+
+    @Test
+    void ownerListBreaksTiesById() {
+        List<ItemDto> items = itemService.getAllByOwner(ownerId);
+
+        assertThat(items).singleElement().satisfies(item -> {
+            assertThat(item.getLastBooking().getId()).isEqualTo(lastId);
+            assertThat(item.getNextBooking().getId()).isEqualTo(nextId);
+        });
+    }
+
+    @Test
+    void singleItemBreaksTiesById() {
+        ItemDto item = itemService.getById(itemId, ownerId);
+
+        assertThat(item.getLastBooking().getId()).isEqualTo(lastId);
+        assertThat(item.getNextBooking().getId()).isEqualTo(nextId);
+    }
+
+    private void insertApproved(long id, Long bookerId, LocalDateTime start) {
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?, 'APPROVED')", id, Timestamp.valueOf(start), Timestamp.valueOf(start),
+                itemId, bookerId);
+    }
+
+    private Long createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@tie-break.test");
+        return userService.save(user).getId();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Бюджет SQL на тестовый метод: тест падает, если тело метода выполнило через Hibernate больше
+ * {@link #value()} запросов или повторило одну форму запроса больше {@link #maxRepeats()} раз.
+ * Подготовка данных в {@code @BeforeEach} не считается. Нужен контекст Spring ({@code @SpringBootTest}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int value();
+
+    int maxRepeats() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,51 @@
+package ru.practicum.sql;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Открывает счётчик SqlStatementCounter на время тела тестового метода с @QueryBudget и сверяет итог с бюджетом
+public class QueryBudgetExtension implements InvocationInterceptor {
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        intercept(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        intercept(invocation, extensionContext);
+    }
+
+    private void intercept(Invocation<Void> invocation, ExtensionContext extensionContext) throws Throwable {
+        QueryBudget budget = AnnotationSupport.findAnnotation(extensionContext.getRequiredTestMethod(),
+                QueryBudget.class).orElse(null);
+        if (budget == null) {
+            invocation.proceed();
+            return;
+        }
+        SqlStatementCounter counter = SpringExtension.getApplicationContext(extensionContext)
+                .getBean(SqlStatementCounter.class);
+        QueryStats stats = counter.begin();
+        try {
+            invocation.proceed();
+        } finally {
+            counter.end();
+        }
+        assertThat(stats.getTotal())
+                .as("SQL statements in %s: %s", extensionContext.getDisplayName(), stats.getShapes())
+                .isLessThanOrEqualTo(budget.value());
+        assertThat(stats.getMaxRepeats())
+                .as("Repeats of one statement shape in %s: %s", extensionContext.getDisplayName(), stats.getShapes())
+                .isLessThanOrEqualTo(budget.maxRepeats());
+    }
+}
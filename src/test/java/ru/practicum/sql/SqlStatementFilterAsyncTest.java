@@ -0,0 +1,83 @@
+package ru.practicum.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.item.ItemService;
+import ru.practicum.item.dto.ItemDto;
+import ru.practicum.user.UserService;
+import ru.practicum.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Тело NDJSON-ответа пишется в потоке из пула MVC, уже после выхода из фильтра. Его SQL всё равно
+ * должны попасть в http.server.requests.sql этого HTTP-запроса.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class SqlStatementFilterAsyncTest {
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void ndjsonStatementsAreCountedForTheRequest() {
+        UserDto owner = new UserDto();
+        owner.setName("owner");
+        owner.setEmail("owner-" + System.nanoTime() + "@async.test");
+        Long ownerId = userService.save(owner).getId();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = new ItemDto();
+            item.setName("Item " + i);
+            item.setDescription("async statements");
+            item.setAvailable(true);
+            itemService.create(item, ownerId);
+        }
+        long countBefore = summary().map(DistributionSummary::count).orElse(0L);
+        double totalBefore = summary().map(DistributionSummary::totalAmount).orElse(0.0);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        headers.set(ru.practicum.util.HttpHeaders.USER_ID_HEADER, String.valueOf(ownerId));
+        ResponseEntity<String> response = rest.exchange("/items", HttpMethod.GET, new HttpEntity<>(headers),
+                String.class);
+
+        assertThat(response.getBody().lines()).hasSize(ITEMS);
+        // Отчёт пишется по завершении асинхронной обработки, которое может наступить после ответа клиенту
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                assertThat(summary().map(DistributionSummary::count).orElse(0L)).isEqualTo(countBefore + 1));
+        assertThat(summary().orElseThrow().totalAmount() - totalBefore).isPositive();
+    }
+
+    private Optional<DistributionSummary> summary() {
+        return Optional.ofNullable(meterRegistry.find("http.server.requests.sql")
+                .tag("method", "GET")
+                .tag("uri", "/items")
+                .summary());
+    }
+}